@@ -5,6 +5,7 @@ import org.example.animals.Dog;
 import org.example.animals.Fish;
 import org.example.animals.Parrot;
 import org.example.config.ProjectConfig;
+import org.example.context.IndexedBeanFactory;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 import java.util.Arrays;
@@ -14,7 +15,12 @@ public class Main {
 
     public static void main(String[] args) {
 
-        var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
+        // run with -Dindexed=true to resolve getBean(Class) through a type index
+        var context = Boolean.getBoolean("indexed")
+                ? new AnnotationConfigApplicationContext(new IndexedBeanFactory())
+                : new AnnotationConfigApplicationContext();
+        context.register(ProjectConfig.class);
+        context.refresh();
 
         Parrot p = context.getBean(Parrot.class);
         // Parrot p = (Parrot) context.getBean("parrot"); same result
@@ -0,0 +1,205 @@
+package org.example.context;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.TypeConverter;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.MethodParameter;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bean factory that remembers which bean each type resolves to, once the
+ * configuration is frozen. By default, {@code getBean(Cat.class)} finds the
+ * candidates of the type and chooses between them (the only one, the
+ * {@code @Primary} one, the one with the highest priority) on every call,
+ * and fails only after doing all that when there are several. Here the
+ * outcome is computed the first time a type is requested, so the next
+ * {@code getBean(Class)} is a map lookup followed by a lookup by name, and
+ * the ambiguous and missing cases fail straight away.
+ * <p>
+ * Autowiring uses the same index for plain dependencies, without qualifiers,
+ * on singletons that already exist: the resolved bean, or the candidate named
+ * as the parameter or field when there are several. Registering or removing a bean clears the index.
+ * <p>
+ * {@code getBeanNamesForType} needs nothing else, Spring already caches it
+ * once the configuration is frozen.
+ */
+public class IndexedBeanFactory extends DefaultListableBeanFactory {
+
+    private static final Resolution MISSING = new Resolution(null, new String[0]);
+
+    private volatile Map<Class<?>, Resolution> index = new ConcurrentHashMap<>();
+
+    @Override
+    public <T> T getBean(Class<T> requiredType) throws BeansException {
+        if (!isIndexed()) {
+            return super.getBean(requiredType);
+        }
+        Resolution resolution = resolution(requiredType);
+        if (resolution.beanName != null) {
+            return getBean(resolution.beanName, requiredType);
+        }
+        if (resolution.candidates.length > 0) {
+            throw new NoUniqueBeanDefinitionException(requiredType, resolution.candidates);
+        }
+        throw new NoSuchBeanDefinitionException(requiredType);
+    }
+
+    @Override
+    public Object doResolveDependency(DependencyDescriptor descriptor, String beanName,
+                                      Set<String> autowiredBeanNames, TypeConverter typeConverter) throws BeansException {
+        String candidate = null;
+        if (isIndexed() && isPlain(descriptor)) {
+            candidate = resolution(descriptor.getDependencyType()).candidateFor(descriptor.getDependencyName());
+        }
+        // only beans that already exist, creating one may need the injection point Spring keeps track of
+        if (candidate == null || candidate.equals(beanName) || !containsSingleton(candidate)
+                || (containsBeanDefinition(candidate) && !getMergedBeanDefinition(candidate).isAutowireCandidate())) {
+            return super.doResolveDependency(descriptor, beanName, autowiredBeanNames, typeConverter);
+        }
+        if (autowiredBeanNames != null) {
+            autowiredBeanNames.add(candidate);
+        }
+        return descriptor.resolveCandidate(candidate, descriptor.getDependencyType(), this);
+    }
+
+    private Resolution resolution(Class<?> type) {
+        Map<Class<?>, Resolution> current = index;
+        Resolution resolution = current.get(type);
+        if (resolution == null) {
+            resolution = resolve(type);
+            current.put(type, resolution);
+        }
+        return resolution;
+    }
+
+    // the same choice getBean(Class) makes, without creating any bean
+    private Resolution resolve(Class<?> type) {
+        String[] names = getBeanNamesForType(type);
+        if (names.length == 0) {
+            return MISSING;
+        }
+        if (names.length == 1) {
+            return new Resolution(names[0], names);
+        }
+        Map<String, Object> candidates = new LinkedHashMap<>();
+        for (String name : names) {
+            if (!containsBeanDefinition(name) || getBeanDefinition(name).isAutowireCandidate()) {
+                candidates.put(name, containsSingleton(name) ? getBean(name) : getType(name));
+            }
+        }
+        if (candidates.isEmpty()) {
+            for (String name : names) {
+                candidates.put(name, containsSingleton(name) ? getBean(name) : getType(name));
+            }
+        }
+        String[] candidateNames = candidates.keySet().toArray(new String[0]);
+        if (candidateNames.length == 1) {
+            return new Resolution(candidateNames[0], candidateNames);
+        }
+        String chosen = determinePrimaryCandidate(candidates, type);
+        if (chosen == null) {
+            chosen = determineHighestPriorityCandidate(candidates, type);
+        }
+        return new Resolution(chosen, candidateNames);
+    }
+
+    private boolean isIndexed() {
+        return isConfigurationFrozen() && getParentBeanFactory() == null;
+    }
+
+    // a single bean of a non-generic type, chosen without qualifiers
+    private static boolean isPlain(DependencyDescriptor descriptor) {
+        Class<?> type = descriptor.getDependencyType();
+        if (type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+                || type == Optional.class || descriptor.getResolvableType().hasGenerics()) {
+            return false;
+        }
+        if (hasQualifier(descriptor.getAnnotations())) {
+            return false;
+        }
+        MethodParameter parameter = descriptor.getMethodParameter();
+        return parameter == null || !hasQualifier(parameter.getMethodAnnotations());
+    }
+
+    private static boolean hasQualifier(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (type == Value.class || type == Qualifier.class || type.isAnnotationPresent(Qualifier.class)
+                    || type.getName().equals("javax.inject.Named")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void clearIndex() {
+        index = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        super.registerBeanDefinition(beanName, beanDefinition);
+        clearIndex();
+    }
+
+    @Override
+    public void removeBeanDefinition(String beanName) throws NoSuchBeanDefinitionException {
+        super.removeBeanDefinition(beanName);
+        clearIndex();
+    }
+
+    @Override
+    public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
+        super.registerSingleton(beanName, singletonObject);
+        clearIndex();
+    }
+
+    @Override
+    public void destroySingleton(String beanName) {
+        super.destroySingleton(beanName);
+        clearIndex();
+    }
+
+    @Override
+    public void destroySingletons() {
+        super.destroySingletons();
+        clearIndex();
+    }
+
+    private static final class Resolution {
+
+        // the bean getBean(Class) returns, or null when there are none or several candidates
+        private final String beanName;
+        private final String[] candidates;
+
+        private Resolution(String beanName, String[] candidates) {
+            this.beanName = beanName;
+            this.candidates = candidates;
+        }
+
+        private String candidateFor(String dependencyName) {
+            if (beanName != null) {
+                return beanName;
+            }
+            for (String candidate : candidates) {
+                if (candidate.equals(dependencyName)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+}
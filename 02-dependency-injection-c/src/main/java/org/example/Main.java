@@ -1,6 +1,7 @@
 package org.example;
 
 import org.example.config.ProjectConfig;
+import org.example.context.LazyByDefaultBeanFactory;
 import org.example.entities.Parrot;
 import org.example.entities.Person;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -9,7 +10,14 @@ public class Main {
 
     public static void main(String[] args) {
 
-        var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
+        // run with -Dlazy=true to create the beans only when they are needed, and print a startup report
+        var factory = Boolean.getBoolean("lazy") ? new LazyByDefaultBeanFactory() : null;
+        var context = factory != null
+                ? new AnnotationConfigApplicationContext(factory)
+                : new AnnotationConfigApplicationContext();
+        context.register(ProjectConfig.class);
+        context.refresh();
+        System.out.println("Context started");
 
         Person person = context.getBean(Person.class);
         person.setName("Ella");
@@ -21,5 +29,9 @@ public class Main {
         System.out.println("Parrot's name: " + parrot.getName());
         System.out.println("Person's parrot: " + person.getParrot().getName());
         System.out.println(person.getParrot() == parrot);
+
+        if (factory != null) {
+            System.out.println(factory.getStartupReport());
+        }
     }
 }
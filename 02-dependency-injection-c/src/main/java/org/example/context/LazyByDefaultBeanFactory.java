@@ -0,0 +1,101 @@
+package org.example.context;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bean factory where every bean is lazy unless it is in the eager list or it
+ * is explicitly marked with {@code @Lazy(false)}, so a singleton is only
+ * created the first time somebody needs it. It also records how long each
+ * bean took to create, how deep in the dependency chain it was created and
+ * whether it was ever requested, see {@link #getStartupReport()}.
+ * <p>
+ * Use it with {@code new AnnotationConfigApplicationContext(new LazyByDefaultBeanFactory(...))}.
+ */
+public class LazyByDefaultBeanFactory extends DefaultListableBeanFactory {
+
+    private final Set<String> eagerBeans;
+    private final Map<String, StartupReport.Entry> created = new ConcurrentHashMap<>();
+    private final Set<String> requested = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Integer> depth = ThreadLocal.withInitial(() -> 0);
+
+    private volatile boolean preInstantiating;
+
+    public LazyByDefaultBeanFactory(String... eagerBeans) {
+        this.eagerBeans = new LinkedHashSet<>(Arrays.asList(eagerBeans));
+    }
+
+    @Override
+    public void preInstantiateSingletons() throws BeansException {
+        for (String beanName : getBeanDefinitionNames()) {
+            BeanDefinition bd = getBeanDefinition(beanName);
+            if (bd.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeans.contains(beanName)) {
+                continue;
+            }
+            // null means nobody chose, @Lazy(false) is an explicit choice
+            if (bd instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) bd).getLazyInit() == null) {
+                bd.setLazyInit(true);
+                // the configuration is frozen by now, so the cached merged definition is not rebuilt
+                getMergedLocalBeanDefinition(beanName).setLazyInit(true);
+            }
+        }
+        preInstantiating = true;
+        try {
+            super.preInstantiateSingletons();
+        } finally {
+            preInstantiating = false;
+        }
+    }
+
+    @Override
+    protected <T> T doGetBean(String name, Class<T> requiredType, Object[] args, boolean typeCheckOnly)
+            throws BeansException {
+        // the top level calls of preInstantiateSingletons() create eager beans, nobody asked for them
+        if (!typeCheckOnly && (!preInstantiating || depth.get() > 0)) {
+            requested.add(transformedBeanName(name));
+        }
+        return super.doGetBean(name, requiredType, args, typeCheckOnly);
+    }
+
+    @Override
+    protected Object createBean(String beanName, RootBeanDefinition mbd, Object[] args) throws BeansException {
+        int level = depth.get();
+        depth.set(level + 1);
+        long start = System.nanoTime();
+        try {
+            return super.createBean(beanName, mbd, args);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            depth.set(level);
+            if (mbd.isSingleton()) {
+                created.putIfAbsent(beanName, new StartupReport.Entry(beanName, mbd.isLazyInit(), true,
+                        elapsed, level, false));
+            }
+        }
+    }
+
+    public StartupReport getStartupReport() {
+        var report = new StartupReport();
+        for (String beanName : getBeanDefinitionNames()) {
+            BeanDefinition bd = getBeanDefinition(beanName);
+            if (bd.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                continue;
+            }
+            StartupReport.Entry entry = created.get(beanName);
+            if (entry == null) {
+                entry = new StartupReport.Entry(beanName, bd.isLazyInit(), false, 0, 0, false);
+            }
+            report.add(entry.withRequested(requested.contains(beanName)));
+        }
+        return report;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * What {@link LazyByDefaultBeanFactory} saw of each bean: a bean that was
+ * created but never requested is a candidate for removal, a bean that was
+ * never created costs nothing at startup.
+ */
+public class StartupReport {
+
+    public static class Entry {
+
+        private final String beanName;
+        private final boolean lazy;
+        private final boolean created;
+        private final long creationNanos;
+        private final int depth;
+        private final boolean requested;
+
+        Entry(String beanName, boolean lazy, boolean created, long creationNanos, int depth, boolean requested) {
+            this.beanName = beanName;
+            this.lazy = lazy;
+            this.created = created;
+            this.creationNanos = creationNanos;
+            this.depth = depth;
+            this.requested = requested;
+        }
+
+        Entry withRequested(boolean requested) {
+            return new Entry(beanName, lazy, created, creationNanos, depth, requested);
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public boolean isLazy() {
+            return lazy;
+        }
+
+        public boolean isCreated() {
+            return created;
+        }
+
+        // includes the time spent creating the beans it depends on
+        public Duration getCreationTime() {
+            return Duration.ofNanos(creationNanos);
+        }
+
+        // 0 when it was created on its own, n when it was created as a dependency of a bean of depth n - 1
+        public int getDepth() {
+            return depth;
+        }
+
+        public boolean isRequested() {
+            return requested;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    void add(Entry entry) {
+        entries.add(entry);
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public List<String> getUnusedBeans() {
+        return entries.stream()
+                .filter(e -> e.isCreated() && !e.isRequested())
+                .map(Entry::getBeanName)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder(String.format("%-30s %-6s %-8s %12s %6s %10s%n",
+                "Bean", "Mode", "Created", "Time (us)", "Depth", "Requested"));
+        for (Entry e : entries) {
+            sb.append(String.format("%-30s %-6s %-8s %12s %6s %10s%n",
+                    e.getBeanName(), e.isLazy() ? "lazy" : "eager", e.isCreated() ? "yes" : "no",
+                    e.isCreated() ? e.getCreationTime().toNanos() / 1_000 : "-",
+                    e.isCreated() ? e.getDepth() : "-", e.isRequested() ? "yes" : "no"));
+        }
+        return sb.toString();
+    }
+}
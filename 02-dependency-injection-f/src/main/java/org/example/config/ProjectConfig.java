@@ -1,9 +1,17 @@
 package org.example.config;
 
+import org.example.context.CircularDependencyDetector;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @ComponentScan(basePackages = "org.example.entities")
 public class ProjectConfig {
+
+    // static, so it runs before ProjectConfig itself is created
+    @Bean
+    public static CircularDependencyDetector circularDependencyDetector() {
+        return new CircularDependencyDetector();
+    }
 }
@@ -0,0 +1,287 @@
+package org.example.context;
+
+import org.example.injection.InjectedType;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionValidationException;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks for constructor and factory method injection cycles in the bean
+ * definitions, before any bean is created. Spring can't solve these cycles
+ * (field and setter injection are fine), and finds them only halfway through
+ * the refresh, with a long nested {@code BeanCurrentlyInCreationException}.
+ * <p>
+ * The beans and their injection points are a graph, which is walked once with
+ * an iterative depth-first search, so the check takes linear time in the
+ * number of beans and injection points.
+ */
+public class CircularDependencyDetector implements BeanFactoryPostProcessor, PriorityOrdered {
+
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    // before the other post-processors, which may already create beans
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        Map<String, List<Edge>> graph = buildGraph(beanFactory);
+        List<List<Edge>> cycles = findCycles(graph);
+        if (!cycles.isEmpty()) {
+            var message = new StringBuilder();
+            for (List<Edge> cycle : cycles) {
+                message.append(describe(cycle));
+            }
+            throw new BeanDefinitionValidationException(message.toString().trim());
+        }
+    }
+
+    private Map<String, List<Edge>> buildGraph(ConfigurableListableBeanFactory beanFactory) {
+        Map<Class<?>, String[]> candidatesByType = new HashMap<>();
+        Map<String, List<Edge>> graph = new LinkedHashMap<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getMergedBeanDefinition(beanName);
+            if (bd.isAbstract()) {
+                continue;
+            }
+            List<Edge> edges = new ArrayList<>();
+            if (bd.getDependsOn() != null) {
+                for (String dependsOn : bd.getDependsOn()) {
+                    edges.add(new Edge(beanName, dependsOn, "depends-on"));
+                }
+            }
+            for (Executable executable : injectionPoints(beanFactory, beanName, bd)) {
+                String[] names = parameterNames(executable);
+                for (int i = 0; i < executable.getParameterCount(); i++) {
+                    var parameter = MethodParameter.forExecutable(executable, i);
+                    String parameterName = names != null ? names[i] : "arg" + i;
+                    String where = "parameter '" + parameterName + "' of " + signature(executable);
+                    for (String target : targets(beanFactory, beanName, parameter, parameterName, candidatesByType)) {
+                        edges.add(new Edge(beanName, target, where));
+                    }
+                }
+            }
+            graph.put(beanName, edges);
+        }
+        return graph;
+    }
+
+    // the constructor or factory methods Spring may call to create the bean
+    private List<Executable> injectionPoints(ConfigurableListableBeanFactory beanFactory, String beanName,
+                                             BeanDefinition bd) {
+        List<Executable> result = new ArrayList<>();
+        if (bd.getFactoryMethodName() != null) {
+            // a static factory method is declared by the bean class, getType() would be what it returns
+            Class<?> factoryClass = bd.getFactoryBeanName() != null
+                    ? beanFactory.getType(bd.getFactoryBeanName(), false)
+                    : beanClass(beanFactory, bd);
+            if (factoryClass != null) {
+                for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+                    if (method.getName().equals(bd.getFactoryMethodName())) {
+                        result.add(method);
+                    }
+                }
+            }
+            return result;
+        }
+
+        Class<?> beanClass = beanFactory.getType(beanName, false);
+        if (beanClass == null) {
+            return result;
+        }
+        Constructor<?>[] constructors = ClassUtils.getUserClass(beanClass).getDeclaredConstructors();
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(Autowired.class)) {
+                result.add(constructor);
+            }
+        }
+        if (result.isEmpty() && constructors.length == 1) {
+            result.add(constructors[0]);
+        }
+        return result;
+    }
+
+    private static Class<?> beanClass(ConfigurableListableBeanFactory beanFactory, BeanDefinition bd) {
+        if (!(bd instanceof AbstractBeanDefinition)) {
+            return null;
+        }
+        var abd = (AbstractBeanDefinition) bd;
+        try {
+            return abd.hasBeanClass() ? abd.getBeanClass() : abd.resolveBeanClass(beanFactory.getBeanClassLoader());
+        } catch (ClassNotFoundException e) {
+            // Spring will report it when it creates the bean
+            return null;
+        }
+    }
+
+    private String[] parameterNames(Executable executable) {
+        return executable instanceof Method
+                ? parameterNames.getParameterNames((Method) executable)
+                : parameterNames.getParameterNames((Constructor<?>) executable);
+    }
+
+    // the beans Spring would inject in the parameter, following the same rules it uses to choose
+    private List<String> targets(ConfigurableListableBeanFactory beanFactory, String beanName,
+                                 MethodParameter parameter, String parameterName,
+                                 Map<Class<?>, String[]> candidatesByType) {
+        var injected = InjectedType.of(parameter);
+        if (injected.isDeferred() || injected.getBeanType() == null) {
+            // a handle is injected and the bean looked up on first use, or Spring finds out on its own
+            return List.of();
+        }
+        String[] candidates = candidatesByType.computeIfAbsent(injected.getBeanType(),
+                t -> BeanFactoryUtils.beanNamesForTypeIncludingAncestors(beanFactory, t, true, false));
+        // like Spring's isSelfReference, a decorator taking its own interface gets the other beans
+        candidates = Arrays.stream(candidates)
+                .filter(candidate -> !isSelfReference(beanFactory, beanName, candidate))
+                .toArray(String[]::new);
+        if (injected.isMultiple() || candidates.length <= 1) {
+            return Arrays.asList(candidates);
+        }
+
+        Qualifier qualifier = parameter.getParameterAnnotation(Qualifier.class);
+        if (qualifier != null) {
+            return List.of(qualifier.value());
+        }
+        List<String> primary = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (beanFactory.containsBeanDefinition(candidate)
+                    && beanFactory.getMergedBeanDefinition(candidate).isPrimary()) {
+                primary.add(candidate);
+            }
+        }
+        if (primary.size() == 1) {
+            return primary;
+        }
+        if (Arrays.asList(candidates).contains(parameterName)) {
+            return List.of(parameterName);
+        }
+        // ambiguous, Spring will fail on its own; every candidate is a possible cycle
+        return Arrays.asList(candidates);
+    }
+
+    private static boolean isSelfReference(ConfigurableListableBeanFactory beanFactory, String beanName,
+                                           String candidate) {
+        return candidate.equals(beanName) || beanFactory.containsBeanDefinition(candidate)
+                && beanName.equals(beanFactory.getMergedBeanDefinition(candidate).getFactoryBeanName());
+    }
+
+    // iterative DFS, a cycle is an edge back to a bean that is still on the path
+    private List<List<Edge>> findCycles(Map<String, List<Edge>> graph) {
+        Map<String, Integer> state = new HashMap<>(); // missing: not visited, 1: on the path, 2: done
+        List<Edge> path = new ArrayList<>();
+        List<Iterator<Edge>> stack = new ArrayList<>();
+        List<List<Edge>> cycles = new ArrayList<>();
+
+        for (String root : graph.keySet()) {
+            if (state.containsKey(root)) {
+                continue;
+            }
+            state.put(root, 1);
+            stack.add(graph.get(root).iterator());
+            while (!stack.isEmpty()) {
+                Iterator<Edge> edges = stack.get(stack.size() - 1);
+                if (!edges.hasNext()) {
+                    stack.remove(stack.size() - 1);
+                    if (path.isEmpty()) {
+                        state.put(root, 2);
+                    } else {
+                        state.put(path.remove(path.size() - 1).to, 2);
+                    }
+                    continue;
+                }
+                Edge edge = edges.next();
+                Integer target = state.get(edge.to);
+                if (target == null && graph.containsKey(edge.to)) {
+                    state.put(edge.to, 1);
+                    path.add(edge);
+                    stack.add(graph.get(edge.to).iterator());
+                } else if (target != null && target == 1) {
+                    cycles.add(cycle(path, edge));
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private static List<Edge> cycle(List<Edge> path, Edge back) {
+        int start = path.size();
+        while (start > 0 && !path.get(start - 1).to.equals(back.to)) {
+            start--;
+        }
+        List<Edge> cycle = new ArrayList<>(path.subList(start, path.size()));
+        cycle.add(back);
+        return cycle;
+    }
+
+    private static String describe(List<Edge> cycle) {
+        var sb = new StringBuilder("Circular dependency between beans: ").append(cycle.get(0).from);
+        for (Edge edge : cycle) {
+            sb.append(" -> ").append(edge.to);
+        }
+        sb.append('\n');
+        for (Edge edge : cycle) {
+            sb.append("    '").append(edge.from).append("' needs '").append(edge.to).append("' through ")
+                    .append(edge.where).append('\n');
+        }
+        Edge last = cycle.get(cycle.size() - 1);
+        if (last.where.equals("depends-on")) {
+            sb.append("Remove the depends-on from '").append(last.from).append("'\n");
+        } else {
+            sb.append("Break the cycle at ").append(last.where)
+                    .append(": annotate it with @Lazy, inject an ObjectProvider, or use setter injection\n");
+        }
+        return sb.toString();
+    }
+
+    private static String signature(Executable executable) {
+        var sb = new StringBuilder(executable.getDeclaringClass().getSimpleName());
+        if (executable instanceof Method) {
+            sb.append('.').append(executable.getName());
+        }
+        sb.append('(');
+        Class<?>[] types = executable.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(types[i].getSimpleName());
+        }
+        return sb.append(')').toString();
+    }
+
+    private static final class Edge {
+
+        private final String from;
+        private final String to;
+        private final String where;
+
+        private Edge(String from, String to, String where) {
+            this.from = from;
+            this.to = to;
+            this.where = where;
+        }
+    }
+}
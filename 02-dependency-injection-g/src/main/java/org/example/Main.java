@@ -1,6 +1,7 @@
 package org.example;
 
 import org.example.config.ProjectConfig;
+import org.example.context.ParallelSingletonBeanFactory;
 import org.example.entities.Parrot;
 import org.example.entities.Person;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -9,7 +10,12 @@ public class Main {
 
     static public void main(String[] args) {
 
-        var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
+        // run with -Dparallel=true to create independent singletons in parallel
+        var context = Boolean.getBoolean("parallel")
+                ? new AnnotationConfigApplicationContext(new ParallelSingletonBeanFactory())
+                : new AnnotationConfigApplicationContext();
+        context.register(ProjectConfig.class);
+        context.refresh();
 
         Parrot parrot1 = context.getBean("parrot1", Parrot.class);
         Parrot parrot2 = context.getBean("parrot2", Parrot.class);
@@ -0,0 +1,217 @@
+package org.example.context;
+
+import org.example.injection.InjectedType;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.MethodParameter;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Bean factory that creates the raw instances of independent singletons in
+ * parallel. The singletons are sorted in levels, where every bean only needs
+ * beans of earlier levels to be instantiated (its factory bean, its factory
+ * method or constructor parameters and its {@code depends-on} beans). The
+ * constructors and {@code @Bean} methods of a level run on a ForkJoin pool,
+ * then the beans are populated and initialized one by one on the calling
+ * thread, so {@code @PostConstruct} methods and the other lifecycle callbacks
+ * run in the same order and with the same guarantees as usual.
+ * <p>
+ * A bean whose needs aren't known (a supplier, a parameter whose generics
+ * don't resolve) or that needs a bean created another way (a prototype, a lazy
+ * or a {@code FactoryBean} one) is created by the default code path, after the
+ * levels, as is every bean that needs it.
+ * <p>
+ * Use it with {@code new AnnotationConfigApplicationContext(new ParallelSingletonBeanFactory())}.
+ */
+public class ParallelSingletonBeanFactory extends DefaultListableBeanFactory {
+
+    private final ForkJoinPool pool;
+    private final Map<String, Object> prepared = new ConcurrentHashMap<>();
+
+    public ParallelSingletonBeanFactory() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelSingletonBeanFactory(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void preInstantiateSingletons() throws BeansException {
+        try {
+            for (List<String> level : levels()) {
+                if (level.size() > 1) {
+                    List<Callable<Object>> tasks = new ArrayList<>();
+                    for (String beanName : level) {
+                        tasks.add(() -> prepared.put(beanName, instantiate(beanName)));
+                    }
+                    pool.invokeAll(tasks);
+                }
+                for (String beanName : level) {
+                    getBean(beanName);
+                }
+            }
+        } finally {
+            prepared.clear();
+        }
+        // FactoryBeans, beans in a cycle and SmartInitializingSingleton callbacks
+        super.preInstantiateSingletons();
+    }
+
+    @Override
+    protected BeanWrapper createBeanInstance(String beanName, RootBeanDefinition mbd, Object[] args) {
+        Object instance = args == null ? prepared.remove(beanName) : null;
+        if (instance instanceof BeanWrapper) {
+            return (BeanWrapper) instance;
+        }
+        if (instance instanceof RuntimeException) {
+            throw (RuntimeException) instance;
+        }
+        return super.createBeanInstance(beanName, mbd, args);
+    }
+
+    private Object instantiate(String beanName) {
+        try {
+            return super.createBeanInstance(beanName, getMergedLocalBeanDefinition(beanName), null);
+        } catch (RuntimeException e) {
+            // rethrown by createBeanInstance(), on the calling thread
+            return e;
+        }
+    }
+
+    // Kahn's algorithm, the beans left out (the ones in a cycle) are created by the default code path
+    private List<List<String>> levels() {
+        Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+        for (String beanName : getBeanDefinitionNames()) {
+            if (isCandidate(beanName)) {
+                dependencies.put(beanName, new LinkedHashSet<>());
+            }
+        }
+        // a worker may only get beans of the earlier levels, the others could be in creation on another worker
+        Set<String> serial = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+            Set<String> needs = dependenciesOf(entry.getKey());
+            if (needs == null) {
+                serial.add(entry.getKey());
+                continue;
+            }
+            for (String dependency : needs) {
+                if (dependencies.containsKey(dependency)) {
+                    if (!dependency.equals(entry.getKey())) {
+                        entry.getValue().add(dependency);
+                    }
+                } else if (!containsSingleton(dependency)) {
+                    serial.add(entry.getKey());
+                }
+            }
+        }
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                if (!serial.contains(entry.getKey()) && entry.getValue().stream().anyMatch(serial::contains)) {
+                    changed = serial.add(entry.getKey());
+                }
+            }
+        }
+        dependencies.keySet().removeAll(serial);
+
+        List<List<String>> levels = new ArrayList<>();
+        Set<String> done = new LinkedHashSet<>();
+        while (done.size() < dependencies.size()) {
+            List<String> level = new ArrayList<>();
+            dependencies.forEach((beanName, needs) -> {
+                if (!done.contains(beanName) && done.containsAll(needs)) {
+                    level.add(beanName);
+                }
+            });
+            if (level.isEmpty()) {
+                break;
+            }
+            done.addAll(level);
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    private boolean isCandidate(String beanName) {
+        if (containsSingleton(beanName)) {
+            return false;
+        }
+        RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+        if (bd.isAbstract() || !bd.isSingleton() || bd.isLazyInit()) {
+            return false;
+        }
+        Class<?> type = getType(beanName, false);
+        return type != null && !FactoryBean.class.isAssignableFrom(type);
+    }
+
+    // null when they aren't known
+    private Set<String> dependenciesOf(String beanName) {
+        RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+        Set<String> names = new LinkedHashSet<>();
+        if (bd.getDependsOn() != null) {
+            names.addAll(Arrays.asList(bd.getDependsOn()));
+        }
+        if (bd.getInstanceSupplier() != null) {
+            // a supplier gets what it needs from the context when it runs
+            return null;
+        }
+
+        // every method or constructor Spring could choose from, their parameters may be autowired
+        List<Executable> candidates = new ArrayList<>();
+        if (bd.getFactoryMethodName() != null) {
+            Class<?> factoryClass;
+            if (bd.getFactoryBeanName() != null) {
+                names.add(bd.getFactoryBeanName());
+                factoryClass = getType(bd.getFactoryBeanName(), false);
+            } else {
+                factoryClass = bd.hasBeanClass() ? bd.getBeanClass() : null;
+            }
+            if (factoryClass == null) {
+                return null;
+            }
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(ClassUtils.getUserClass(factoryClass))) {
+                if (method.getName().equals(bd.getFactoryMethodName())) {
+                    candidates.add(method);
+                }
+            }
+        } else if (bd.hasBeanClass()) {
+            for (Constructor<?> constructor : bd.getBeanClass().getDeclaredConstructors()) {
+                candidates.add(constructor);
+            }
+        } else {
+            return null;
+        }
+
+        for (Executable candidate : candidates) {
+            for (int i = 0; i < candidate.getParameterCount(); i++) {
+                // a deferred one too, the constructor may already look the bean up
+                Class<?> type = InjectedType.of(MethodParameter.forExecutable(candidate, i)).getBeanType();
+                if (type == null) {
+                    return null;
+                }
+                names.addAll(Arrays.asList(getBeanNamesForType(type, true, false)));
+            }
+        }
+        return names;
+    }
+}
@@ -1,21 +1,27 @@
 package org.example;
 
 import org.example.model.Comment;
+import org.example.proxies.AsyncCommentNotificationProxy;
+import org.example.proxies.AsyncCommentNotificationProxy.BackpressurePolicy;
 import org.example.proxies.EmailCommentNotificationProxy;
 import org.example.repositories.DatabaseCommentRepository;
 import org.example.servicies.CommentService;
 
 public class Main {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
 
         var commentRepository = new DatabaseCommentRepository();
-        var commentNotificationProxy = new EmailCommentNotificationProxy();
+        var commentNotificationProxy = new AsyncCommentNotificationProxy(
+                new EmailCommentNotificationProxy(), 2, 1_000, BackpressurePolicy.CALLER_RUNS);
 
         var commentService = new CommentService(commentRepository, commentNotificationProxy);
 
         var comment = new Comment("John", "Hello World");
 
         commentService.publishComment(comment);
+
+        // waits for the queued notifications to be sent
+        commentNotificationProxy.close();
     }
 }
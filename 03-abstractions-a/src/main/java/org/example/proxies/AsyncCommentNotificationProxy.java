@@ -0,0 +1,177 @@
+package org.example.proxies;
+
+import org.example.model.Comment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sends notifications on a pool of worker threads, so the caller only pays for
+ * queueing the comment. The queue is bounded and the {@link BackpressurePolicy}
+ * decides what happens when it is full.
+ * The comments that are never sent are counted: {@link #getDroppedCount()}
+ * for a full queue or a closed proxy, {@link #getFailedCount()} when the
+ * delegate throws. {@link #close()} reports them.
+ */
+public class AsyncCommentNotificationProxy implements CommentNotificationProxy, AutoCloseable {
+
+    public enum BackpressurePolicy {
+        // wait until a worker takes a queued notification
+        BLOCK,
+        // discard the oldest queued notification to make room for the new one
+        DROP_OLDEST,
+        // send the notification on the caller's thread
+        CALLER_RUNS
+    }
+
+    private final CommentNotificationProxy delegate;
+    private final BackpressurePolicy policy;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // the first exception of the delegate, the failed count covers the next ones
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public AsyncCommentNotificationProxy(CommentNotificationProxy delegate, int workers, int capacity,
+                                         BackpressurePolicy policy) {
+        this(delegate, workers, capacity, policy, daemonThreads());
+    }
+
+    public AsyncCommentNotificationProxy(CommentNotificationProxy delegate, int workers, int capacity,
+                                         BackpressurePolicy policy, ThreadFactory threadFactory) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), threadFactory, this::reject);
+    }
+
+    @Override
+    public void sendComment(Comment comment) {
+        checkNotClosed();
+        sendCommentAsync(comment);
+    }
+
+    public CompletableFuture<Void> sendCommentAsync(Comment comment) {
+        var notification = new Notification(comment);
+        executor.execute(notification);
+        return notification.future;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // the comments whose notification threw
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    // nobody waits on the future of sendComment, so a closed proxy throws at once like an executor
+    private void checkNotClosed() {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Notification proxy is closed");
+        }
+    }
+
+    // throws when notifications failed or are still queued after 10 seconds, which are then discarded
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        long discarded = 0;
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            for (Runnable task : executor.shutdownNow()) {
+                discarded++;
+                fail(task, "Notification proxy closed before sending it");
+            }
+        }
+        Throwable e = failure.get();
+        if (e != null || discarded > 0) {
+            throw new IllegalStateException("Failed to send " + failed.get() + " comments, "
+                    + discarded + " discarded on close", e);
+        }
+    }
+
+    private void reject(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            fail(task, "Notification proxy is closed");
+            return;
+        }
+        switch (policy) {
+            case BLOCK:
+                try {
+                    // waits in steps, so close() isn't missed while the queue stays full
+                    while (!executor.getQueue().offer(task, 100, TimeUnit.MILLISECONDS)) {
+                        if (executor.isShutdown()) {
+                            fail(task, "Notification proxy is closed");
+                            return;
+                        }
+                    }
+                    // like execute(), closed after the task was queued: no worker may be left to run it
+                    if (executor.isShutdown() && executor.getQueue().remove(task)) {
+                        fail(task, "Notification proxy is closed");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(task, "Interrupted while waiting for queue space");
+                }
+                break;
+            case DROP_OLDEST:
+                Runnable oldest = executor.getQueue().poll();
+                if (oldest != null) {
+                    fail(oldest, "Dropped by DROP_OLDEST backpressure policy");
+                }
+                executor.execute(task);
+                break;
+            case CALLER_RUNS:
+                task.run();
+                break;
+        }
+    }
+
+    private void fail(Runnable task, String reason) {
+        dropped.incrementAndGet();
+        ((Notification) task).future.completeExceptionally(new RejectedExecutionException(reason));
+    }
+
+    private static ThreadFactory daemonThreads() {
+        var count = new AtomicInteger();
+        return task -> {
+            var thread = new Thread(task, "comment-notifier-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Notification implements Runnable {
+
+        private final Comment comment;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Notification(Comment comment) {
+            this.comment = comment;
+        }
+
+        @Override
+        public void run() {
+            try {
+                delegate.sendComment(comment);
+                future.complete(null);
+            } catch (Throwable e) {
+                failed.incrementAndGet();
+                failure.compareAndSet(null, e);
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -1,17 +1,33 @@
 package org.example;
 
 import org.example.config.ProjectConfig;
-import org.example.model.Comment;
+import org.example.repositories.BatchingCommentRepository;
+import org.example.repositories.MappedCommentRepository;
 import org.example.services.CommentService;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.util.stream.IntStream;
+
 public class Main {
 
     public static void main(String[] args) {
 
         var context = new AnnotationConfigApplicationContext(ProjectConfig.class);
         var commentService = context.getBean(CommentService.class);
-        var comment = new Comment("John", "Hello World");
+        var repository = context.getBean(BatchingCommentRepository.class);
+        var log = context.getBean(MappedCommentRepository.class);
+        var comment = commentService.newComment("John", "Hello World");
         commentService.publishComment(comment);
+
+        // a source of any size, published 4 comments at a time
+        var stats = commentService.publishComments(IntStream.range(0, 10)
+                .mapToObj(i -> commentService.newComment("Jane", "Comment " + i)), 4);
+
+        // closing the context flushes the comments still waiting in the batching repository
+        context.close();
+        System.out.println(stats);
+        System.out.println(repository);
+        // the comments of the previous runs are still in the log
+        System.out.println(log);
     }
 }
@@ -0,0 +1,54 @@
+package org.example.codec;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authors known to both the writer and the reader of the encoded comments,
+ * which {@link CommentCodec} writes as a small id instead of their name.
+ * The ids must not change while something they encoded is kept.
+ */
+public interface AuthorDictionary {
+
+    int NOT_FOUND = -1;
+
+    // NOT_FOUND when the author isn't in the dictionary (and can't be added to it)
+    int idOf(String author);
+
+    // the author of an id returned by idOf
+    String authorOf(int id);
+
+    // the ids go from 0 to size() - 1
+    int size();
+
+    // the ids are the positions in the list
+    static AuthorDictionary of(List<String> authors) {
+        String[] byId = authors.toArray(new String[0]);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int id = 0; id < byId.length; id++) {
+            if (ids.putIfAbsent(byId[id], id) != null) {
+                throw new IllegalArgumentException("Duplicate author: " + byId[id]);
+            }
+        }
+        return new AuthorDictionary() {
+            @Override
+            public int idOf(String author) {
+                return ids.getOrDefault(author, NOT_FOUND);
+            }
+
+            @Override
+            public String authorOf(int id) {
+                if (id < 0 || id >= byId.length) {
+                    throw new IllegalArgumentException("Unknown author id: " + id);
+                }
+                return byId[id];
+            }
+
+            @Override
+            public int size() {
+                return byId.length;
+            }
+        };
+    }
+}
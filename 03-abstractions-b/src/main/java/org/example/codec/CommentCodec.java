@@ -0,0 +1,158 @@
+package org.example.codec;
+
+import org.example.model.Comment;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary form of a {@link Comment}:
+ * <pre>
+ * byte version | byte flags | author | text
+ * </pre>
+ * The text is a varint length and UTF-8 bytes. So is the author, unless the
+ * {@link #AUTHOR_ID} flag is set, when it is the varint id of the author in
+ * the {@link AuthorDictionary} (the encoder uses it for the authors in the
+ * dictionary, the decoder needs the same dictionary). Only version
+ * {@value #VERSION} is written, decoding another one fails.
+ * <p>
+ * {@link CommentView} reads a comment without copying it.
+ */
+public final class CommentCodec {
+
+    public static final byte VERSION = 1;
+    public static final byte AUTHOR_ID = 1;
+
+    private final AuthorDictionary dictionary;
+
+    public CommentCodec() {
+        this(null);
+    }
+
+    public CommentCodec(AuthorDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public AuthorDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int encodedSize(Comment comment) {
+        int authorId = authorId(comment.getAuthor());
+        return 2 + (authorId != AuthorDictionary.NOT_FOUND ? varintSize(authorId) : stringSize(comment.getAuthor()))
+                + stringSize(comment.getText());
+    }
+
+    // at the position of the buffer, which is moved after the comment
+    public void encode(Comment comment, ByteBuffer buffer) {
+        int authorId = authorId(comment.getAuthor());
+        // getBytes copies the bytes of an ASCII string, faster than writing the chars one by one
+        byte[] author = authorId == AuthorDictionary.NOT_FOUND
+                ? comment.getAuthor().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] text = comment.getText().getBytes(StandardCharsets.UTF_8);
+        int size = 2 + (author == null ? varintSize(authorId) : varintSize(author.length) + author.length)
+                + varintSize(text.length) + text.length;
+        if (buffer.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(VERSION);
+        if (author == null) {
+            buffer.put(AUTHOR_ID);
+            putVarint(buffer, authorId);
+        } else {
+            buffer.put((byte) 0);
+            putVarint(buffer, author.length);
+            buffer.put(author);
+        }
+        putVarint(buffer, text.length);
+        buffer.put(text);
+    }
+
+    public byte[] encode(Comment comment) {
+        var buffer = ByteBuffer.allocate(encodedSize(comment));
+        encode(comment, buffer);
+        return buffer.array();
+    }
+
+    // at the position of the buffer, which is moved after the comment
+    public Comment decode(ByteBuffer buffer) {
+        var view = new CommentView(this).wrap(buffer, buffer.position());
+        buffer.position(buffer.position() + view.getEncodedSize());
+        return view.toComment();
+    }
+
+    public Comment decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    public CommentView view() {
+        return new CommentView(this);
+    }
+
+    private int authorId(String author) {
+        return dictionary != null ? dictionary.idOf(author) : AuthorDictionary.NOT_FOUND;
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // reads at an index before the limit, returns the value and its size as (size << 32) | value
+    static long getVarint(ByteBuffer buffer, int index) {
+        int value = 0;
+        for (int size = 1, shift = 0; size <= 5; size++, shift += 7) {
+            if (index >= buffer.limit()) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+            byte b = buffer.get(index++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return ((long) size << 32) | (value & 0xFFFFFFFFL);
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int stringSize(String s) {
+        int length = utf8Length(s);
+        return varintSize(length) + length;
+    }
+
+    // like String.getBytes, an unpaired surrogate is one '?'
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (isPair(s, i)) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isPair(String s, int i) {
+        return Character.isHighSurrogate(s.charAt(i)) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1));
+    }
+}
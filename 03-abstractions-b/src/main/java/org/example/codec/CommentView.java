@@ -0,0 +1,113 @@
+package org.example.codec;
+
+import org.example.model.Comment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A comment encoded by {@link CommentCodec}, read where it is in a buffer.
+ * {@link #wrap} only reads the lengths, the strings are decoded when they
+ * are asked for, an author in the dictionary is never decoded, and the text
+ * can be read as a slice of the buffer. A view can be moved from comment to
+ * comment, it is only valid while the buffer isn't changed.
+ */
+public final class CommentView {
+
+    private final CommentCodec codec;
+    private ByteBuffer buffer;
+    private int authorId;
+    private int authorOffset;
+    private int authorLength;
+    private int textOffset;
+    private int textLength;
+    private int encodedSize;
+
+    CommentView(CommentCodec codec) {
+        this.codec = codec;
+    }
+
+    // the comment encoded at the offset, the position of the buffer isn't used nor changed
+    public CommentView wrap(ByteBuffer buffer, int offset) {
+        int limit = buffer.limit();
+        if (offset < 0 || offset + 2L > limit) {
+            throw new IllegalArgumentException("Truncated comment at " + offset);
+        }
+        byte version = buffer.get(offset);
+        if (version != CommentCodec.VERSION) {
+            throw new IllegalArgumentException("Unsupported comment version: " + version);
+        }
+        byte flags = buffer.get(offset + 1);
+        int index = offset + 2;
+        long varint = CommentCodec.getVarint(buffer, index);
+        index += (int) (varint >>> 32);
+        // the values are unsigned, anything above Integer.MAX_VALUE can't fit in the buffer
+        long value = varint & 0xFFFFFFFFL;
+        if ((flags & CommentCodec.AUTHOR_ID) != 0) {
+            if (codec.getDictionary() == null) {
+                throw new IllegalArgumentException("Comment encoded with an author dictionary");
+            }
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Malformed author id at " + offset);
+            }
+            authorId = (int) value;
+            authorOffset = -1;
+            authorLength = 0;
+        } else {
+            if (index + value > limit) {
+                throw new IllegalArgumentException("Truncated comment at " + offset);
+            }
+            authorId = AuthorDictionary.NOT_FOUND;
+            authorOffset = index;
+            authorLength = (int) value;
+            index += authorLength;
+        }
+        varint = CommentCodec.getVarint(buffer, index);
+        index += (int) (varint >>> 32);
+        value = varint & 0xFFFFFFFFL;
+        if (index + value > limit) {
+            throw new IllegalArgumentException("Truncated comment at " + offset);
+        }
+        textOffset = index;
+        textLength = (int) value;
+        encodedSize = textOffset + textLength - offset;
+        this.buffer = buffer;
+        return this;
+    }
+
+    public int getEncodedSize() {
+        return encodedSize;
+    }
+
+    // NOT_FOUND when the author is written out
+    public int getAuthorId() {
+        return authorId;
+    }
+
+    public String getAuthor() {
+        return authorId != AuthorDictionary.NOT_FOUND ? codec.getDictionary().authorOf(authorId)
+                : decode(authorOffset, authorLength);
+    }
+
+    public String getText() {
+        return decode(textOffset, textLength);
+    }
+
+    // the UTF-8 bytes of the text, sharing the content of the buffer
+    public ByteBuffer getTextBytes() {
+        return buffer.slice(textOffset, textLength);
+    }
+
+    public Comment toComment() {
+        return new Comment(getAuthor(), getText());
+    }
+
+    private String decode(int offset, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.codec;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link AuthorDictionary} that learns the authors: the first time an
+ * author is asked for, it gets the next id, until {@code maxSize} authors
+ * have one. The authors after that keep being written out, so a long tail of
+ * authors who post once can't fill the heap. Looking an author up doesn't
+ * lock, only adding one does. Authors are never removed, an id stays valid
+ * as long as something it encoded is kept.
+ * <p>
+ * {@link #intern} gives the instance of the dictionary for an author, so
+ * the comments of an author can share a single string.
+ */
+public class ConcurrentAuthorDictionary implements AuthorDictionary {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // written under the lock, byId before size, so a reader that sees an id sees its author
+    private volatile String[] byId = new String[16];
+    private volatile int size;
+    private final LongAdder overflows = new LongAdder();
+
+    public ConcurrentAuthorDictionary(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    // adds the author when it isn't in the dictionary yet, NOT_FOUND when the dictionary is full
+    @Override
+    public int idOf(String author) {
+        Integer id = ids.get(author);
+        return id != null ? id : add(author);
+    }
+
+    private synchronized int add(String author) {
+        Integer id = ids.get(author);
+        if (id != null) {
+            return id;
+        }
+        int next = size;
+        if (next == maxSize) {
+            overflows.increment();
+            return NOT_FOUND;
+        }
+        String[] authors = byId;
+        if (next == authors.length) {
+            authors = Arrays.copyOf(authors, Math.min(maxSize, authors.length * 2));
+        }
+        authors[next] = author;
+        byId = authors;
+        ids.put(author, next);
+        size = next + 1;
+        return next;
+    }
+
+    @Override
+    public String authorOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown author id: " + id);
+        }
+        return byId[id];
+    }
+
+    // the instance of the dictionary, or the author itself when the dictionary is full
+    public String intern(String author) {
+        int id = idOf(author);
+        return id != NOT_FOUND ? byId[id] : author;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // the authors that didn't get an id because the dictionary was full
+    public long getOverflowCount() {
+        return overflows.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConcurrentAuthorDictionary{size=%d, maxSize=%d, overflows=%d}", size, maxSize,
+                getOverflowCount());
+    }
+}
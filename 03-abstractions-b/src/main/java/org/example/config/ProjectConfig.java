@@ -1,10 +1,51 @@
 package org.example.config;
 
+import org.example.codec.CommentCodec;
+import org.example.codec.ConcurrentAuthorDictionary;
+import org.example.proxies.AsyncCommentNotificationProxy;
+import org.example.proxies.AsyncCommentNotificationProxy.BackpressurePolicy;
+import org.example.proxies.EmailCommentNotificationProxy;
+import org.example.repositories.BatchingCommentRepository;
+import org.example.repositories.MappedCommentRepository;
+import org.example.repositories.MappedCommentRepository.FsyncPolicy;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.nio.file.Path;
+import java.time.Duration;
 
 @Configuration
 @ComponentScan(basePackages = {
         "org.example.services", "org.example.repositories", "org.example.proxies"})
 public class ProjectConfig {
+
+    // the first 100 000 authors get an id, the ones after that are stored in full
+    @Bean
+    public ConcurrentAuthorDictionary authorDictionary() {
+        return new ConcurrentAuthorDictionary(100_000);
+    }
+
+    // -Dcomments.dir chooses where the comments are stored, 64 MB per segment file
+    @Bean
+    public MappedCommentRepository mappedCommentRepository(ConcurrentAuthorDictionary authorDictionary) {
+        Path directory = Path.of(System.getProperty("comments.dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "comments").toString()));
+        return new MappedCommentRepository(directory, 64 * 1024 * 1024, FsyncPolicy.BATCH, Duration.ofMillis(100),
+                new CommentCodec(authorDictionary));
+    }
+
+    // batches of up to 1000 comments, each forced to disk once by the mapped repository; close() flushes the rest
+    @Bean
+    @Primary
+    public BatchingCommentRepository batchingCommentRepository(MappedCommentRepository mappedCommentRepository) {
+        return new BatchingCommentRepository(mappedCommentRepository, 1000, Duration.ofMillis(10), 10_000);
+    }
+
+    @Bean
+    @Primary
+    public AsyncCommentNotificationProxy asyncCommentNotificationProxy(EmailCommentNotificationProxy emailCommentNotificationProxy) {
+        return new AsyncCommentNotificationProxy(emailCommentNotificationProxy, 2, 1_000, BackpressurePolicy.CALLER_RUNS);
+    }
 }
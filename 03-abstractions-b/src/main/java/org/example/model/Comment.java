@@ -1,6 +1,10 @@
 package org.example.model;
 
-public class Comment {
+import java.io.Serializable;
+
+public class Comment implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final String author;
     private final String text;
@@ -2,7 +2,13 @@ package org.example.proxies;
 
 import org.example.model.Comment;
 
+import java.util.List;
+
 public interface CommentNotificationProxy {
 
     void sendComment(Comment comment);
+
+    default void sendComments(List<Comment> comments) {
+        comments.forEach(this::sendComment);
+    }
 }
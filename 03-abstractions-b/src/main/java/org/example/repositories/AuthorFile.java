@@ -0,0 +1,110 @@
+package org.example.repositories;
+
+import org.example.codec.AuthorDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The authors of the {@link AuthorDictionary} of a
+ * {@link MappedCommentRepository}, in the order of their ids, so that after a
+ * restart the dictionary gives them the same ids and the log can be read.
+ * Each author is
+ * <pre>
+ * int length | int CRC32C | UTF-8 bytes
+ * </pre>
+ * The authors are appended and forced to disk before the records that use
+ * their ids are written to the segment, whatever the {@code FsyncPolicy}: the
+ * OS may write the pages of a segment back at any time.
+ */
+final class AuthorFile {
+
+    static final String NAME = "authors.dict";
+    private static final int ENTRY_HEADER = 8;
+
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    // the authors in the file
+    private int written;
+    private boolean dirty;
+
+    private AuthorFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    // gives the authors of the file the same ids as before, the dictionary must not have others yet
+    static AuthorFile open(Path directory, AuthorDictionary dictionary) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var file = new AuthorFile(channel);
+        ByteBuffer entries = ByteBuffer.allocate((int) channel.size());
+        while (entries.hasRemaining() && channel.read(entries) >= 0) {
+            // reads it all
+        }
+        entries.flip();
+        while (entries.remaining() >= ENTRY_HEADER) {
+            int length = entries.getInt(entries.position());
+            int checksum = entries.getInt(entries.position() + 4);
+            if (length < 0 || length > entries.remaining() - ENTRY_HEADER
+                    || file.checksum(entries.slice(entries.position() + ENTRY_HEADER, length)) != checksum) {
+                break;
+            }
+            byte[] author = new byte[length];
+            entries.position(entries.position() + ENTRY_HEADER).get(author);
+            int id = dictionary.idOf(new String(author, StandardCharsets.UTF_8));
+            if (id != file.written) {
+                throw new IllegalStateException("The author dictionary doesn't match " + directory.resolve(NAME));
+            }
+            file.written++;
+        }
+        // the rest is a torn write
+        channel.truncate(entries.position());
+        channel.position(entries.position());
+        return file;
+    }
+
+    private int checksum(ByteBuffer bytes) {
+        crc.reset();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // the authors the dictionary got since the last time, false when there were none
+    boolean append(AuthorDictionary dictionary) throws IOException {
+        int size = dictionary.size();
+        if (size == written) {
+            return false;
+        }
+        for (int id = written; id < size; id++) {
+            byte[] author = dictionary.authorOf(id).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER + author.length);
+            entry.putInt(author.length).putInt(checksum(ByteBuffer.wrap(author))).put(author).flip();
+            while (entry.hasRemaining()) {
+                channel.write(entry);
+            }
+        }
+        written = size;
+        dirty = true;
+        return true;
+    }
+
+    void force() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    int getAuthorCount() {
+        return written;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.repositories;
+
+import org.example.model.Comment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind repository: comments from many threads are queued and stored
+ * in the delegate as one group commit when either {@code maxBatchSize} comments
+ * are waiting or the oldest one has waited {@code maxDelay}. Closing waits
+ * for the callers still queueing comments, then writes everything queued.
+ * A batch the delegate fails to store is counted as failed, and the failure
+ * is thrown by the next {@link #flush()} or {@link #close()}.
+ */
+public class BatchingCommentRepository implements CommentRepository, AutoCloseable {
+
+    // queued by close() after the last comment, the flusher stops when it takes it
+    private static final Comment CLOSE = new Comment("", "");
+
+    private final CommentRepository delegate;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Comment> queue;
+    private final Thread flusher;
+    private final Object flushLock = new Object();
+    // held for reading while a comment is queued, for writing to close
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean closed;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private final AtomicLong maxBatch = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    public BatchingCommentRepository(CommentRepository delegate, int maxBatchSize, Duration maxDelay, int capacity) {
+        if (maxBatchSize < 1 || capacity < maxBatchSize) {
+            throw new IllegalArgumentException("capacity must be >= maxBatchSize >= 1");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flusher = new Thread(this::runFlusher, "comment-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void storeComment(Comment comment) {
+        closeLock.readLock().lock();
+        try {
+            enqueue(comment);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void storeComments(List<Comment> comments) {
+        closeLock.readLock().lock();
+        try {
+            comments.forEach(this::enqueue);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    // the flusher is still running while a caller holds the read lock, so a full queue drains
+    private void enqueue(Comment comment) {
+        if (closed) {
+            throw new IllegalStateException("Repository is closed");
+        }
+        try {
+            // blocks the caller when the queue is full, so producers cannot outrun the database
+            queue.put(comment);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing comment", e);
+        }
+    }
+
+    // writes what is queued on the caller's thread, then throws what the flusher failed to write
+    public void flush() {
+        synchronized (flushLock) {
+            List<Comment> batch = new ArrayList<>(maxBatchSize);
+            while (queue.drainTo(batch, maxBatchSize) > 0) {
+                boolean closing = isClosing(batch);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                batch.clear();
+                if (closing) {
+                    // handed back for the flusher, there is room as the queue was just drained
+                    queue.offer(CLOSE);
+                    break;
+                }
+            }
+        }
+        throwFailure();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        // not interrupted: the delegate may be writing to interruptible channels, which an interrupt closes
+        queue.put(CLOSE);
+        flusher.join();
+        throwFailure();
+    }
+
+    private void runFlusher() {
+        List<Comment> batch = new ArrayList<>(maxBatchSize);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize && batch.get(batch.size() - 1) != CLOSE) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || batch.get(batch.size() - 1) == CLOSE || remaining <= 0) {
+                        break;
+                    }
+                    Comment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // nothing interrupts the flusher on purpose, what was taken is still written below
+            }
+            closing = isClosing(batch);
+            if (!batch.isEmpty()) {
+                synchronized (flushLock) {
+                    try {
+                        write(batch);
+                    } catch (RuntimeException e) {
+                        failed.addAndGet(batch.size());
+                        RuntimeException first = failure.getAndUpdate(f -> f != null ? f : e);
+                        if (first != null) {
+                            first.addSuppressed(e);
+                        }
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    // no comment is queued after CLOSE, so it can only be the last one of a batch
+    private static boolean isClosing(List<Comment> batch) {
+        if (!batch.isEmpty() && batch.get(batch.size() - 1) == CLOSE) {
+            batch.remove(batch.size() - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private void throwFailure() {
+        RuntimeException e = failure.getAndSet(null);
+        if (e != null) {
+            throw new IllegalStateException("Failed to store queued comments, " + failed.get() + " lost so far", e);
+        }
+    }
+
+    private void write(List<Comment> batch) {
+        long start = System.nanoTime();
+        delegate.storeComments(batch);
+        long elapsed = System.nanoTime() - start;
+
+        batches.incrementAndGet();
+        comments.addAndGet(batch.size());
+        maxBatch.accumulateAndGet(batch.size(), Math::max);
+        flushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getCommentCount() {
+        return comments.get();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) comments.get() / count;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatch.get();
+    }
+
+    public Duration getAverageFlushLatency() {
+        long count = batches.get();
+        return Duration.ofNanos(count == 0 ? 0 : flushNanos.get() / count);
+    }
+
+    public Duration getMaxFlushLatency() {
+        return Duration.ofNanos(maxFlushNanos.get());
+    }
+
+    // the comments of the batches the delegate failed to store
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchingCommentRepository{batches=%d, comments=%d, avgBatch=%.1f, maxBatch=%d, " +
+                        "avgFlush=%s, maxFlush=%s, failed=%d}", getBatchCount(), getCommentCount(), getAverageBatchSize(),
+                getMaxBatchSize(), getAverageFlushLatency(), getMaxFlushLatency(), getFailedCount());
+    }
+}
@@ -2,7 +2,13 @@ package org.example.repositories;
 
 import org.example.model.Comment;
 
+import java.util.List;
+
 public interface CommentRepository {
 
     void storeComment(Comment comment);
+
+    default void storeComments(List<Comment> comments) {
+        comments.forEach(this::storeComment);
+    }
 }
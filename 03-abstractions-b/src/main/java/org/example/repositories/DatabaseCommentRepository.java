@@ -3,6 +3,9 @@ package org.example.repositories;
 import org.example.model.Comment;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Repository
 public class DatabaseCommentRepository implements CommentRepository {
 
@@ -10,4 +13,11 @@ public class DatabaseCommentRepository implements CommentRepository {
     public void storeComment(Comment comment) {
         System.out.println("Storing in database comment: " + comment.getText());
     }
+
+    @Override
+    public void storeComments(List<Comment> comments) {
+        // a single round trip for the whole batch
+        System.out.println("Storing in database " + comments.size() + " comments: " +
+                comments.stream().map(Comment::getText).collect(Collectors.joining(", ")));
+    }
 }
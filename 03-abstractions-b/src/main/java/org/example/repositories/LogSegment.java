@@ -0,0 +1,241 @@
+package org.example.repositories;
+
+import org.example.codec.CommentCodec;
+import org.example.codec.CommentView;
+import org.example.model.Comment;
+import sun.misc.Unsafe;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of a {@link MappedCommentRepository}, mapped in memory and named
+ * after the offset of its first comment. After a header (magic, version),
+ * each record is
+ * <pre>
+ * int length | int CRC32C of the payload | payload
+ * </pre>
+ * where the payload is the comment encoded by the {@link CommentCodec}. A
+ * length of 0 marks the end of the records.
+ * <p>
+ * The last segment is the one written to. When it's full it is sealed: forced
+ * to disk, truncated to its records and mapped read-only, so on restart the sealed segments
+ * aren't read, only the last one is scanned. A record whose author id isn't
+ * in the dictionary replayed from the {@link AuthorFile} ends the scan like a
+ * corrupt one: the author didn't reach the disk, so the id means nothing.
+ */
+final class LogSegment {
+
+    private static final int MAGIC = 0x434C4F47;
+    // 1 wrote the strings without the version and flags of the codec
+    private static final int VERSION = 2;
+    private static final int HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final String SUFFIX = ".log";
+    // unmaps a buffer at once, instead of when it is collected
+    private static final Unsafe UNSAFE;
+
+    static {
+        try {
+            UNSAFE = (Unsafe) MethodHandles.privateLookupIn(Unsafe.class, MethodHandles.lookup())
+                    .findStaticVarHandle(Unsafe.class, "theUnsafe", Unsafe.class).get();
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long baseOffset;
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final CommentCodec codec;
+    private final CRC32C crc = new CRC32C();
+    // the end of the records
+    private int position;
+    private int count;
+    // the records before it have been forced to disk
+    private int synced;
+    private boolean sealed;
+
+    private LogSegment(long baseOffset, Path file, FileChannel channel, MappedByteBuffer buffer, CommentCodec codec) {
+        this.baseOffset = baseOffset;
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.codec = codec;
+    }
+
+    static LogSegment create(Path directory, long baseOffset, int capacity, CommentCodec codec) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        var segment = new LogSegment(baseOffset, file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity),
+                codec);
+        segment.writeHeader();
+        return segment;
+    }
+
+    // a segment sealed before the restart, with the given number of comments
+    static LogSegment openSealed(Path file, int count, CommentCodec codec) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        var segment = new LogSegment(baseOffset(file), file, channel,
+                channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), codec);
+        segment.checkHeader();
+        segment.position = (int) channel.size();
+        segment.synced = segment.position;
+        segment.count = count;
+        segment.sealed = true;
+        return segment;
+    }
+
+    // the segment written to before the restart: keeps the records up to the first one torn or corrupt
+    static LogSegment recover(Path file, int capacity, CommentCodec codec) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(capacity, channel.size());
+        var segment = new LogSegment(baseOffset(file), file, channel,
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, size), codec);
+        if (segment.buffer.getInt(0) == 0) {
+            // created, but the header never reached the disk
+            segment.writeHeader();
+        } else {
+            segment.checkHeader();
+            segment.scan();
+        }
+        return segment;
+    }
+
+    static boolean isSegment(Path file) {
+        return file.getFileName().toString().matches("\\d{20}\\" + SUFFIX);
+    }
+
+    static long baseOffset(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC).putInt(4, VERSION);
+        position = HEADER;
+    }
+
+    private void checkHeader() throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " isn't a comment log segment of version " + VERSION);
+        }
+    }
+
+    private void scan() {
+        CommentView view = codec.view();
+        position = HEADER;
+        while (position + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER
+                    || checksum(position + RECORD_HEADER, length) != buffer.getInt(position + 4)
+                    || !hasKnownAuthor(view, position + RECORD_HEADER)) {
+                break;
+            }
+            position += RECORD_HEADER + length;
+            count++;
+        }
+        synced = position;
+        if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+            // what's left of a torn write, clear it so it can't be mistaken for a record after new ones
+            byte[] zeros = new byte[4096];
+            for (int i = position; i < buffer.capacity(); i += zeros.length) {
+                buffer.put(i, zeros, 0, Math.min(zeros.length, buffer.capacity() - i));
+            }
+            buffer.force();
+        }
+    }
+
+    private boolean hasKnownAuthor(CommentView view, int offset) {
+        if (codec.getDictionary() == null) {
+            return true;
+        }
+        try {
+            return view.wrap(buffer, offset).getAuthorId() < codec.getDictionary().size();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private int checksum(int from, int length) {
+        crc.reset();
+        crc.update(buffer.slice(from, length));
+        return (int) crc.getValue();
+    }
+
+    // a comment already encoded by the codec, false when the segment has no room left for it
+    boolean append(ByteBuffer payload) {
+        if (sealed) {
+            throw new IllegalStateException(file + " is sealed");
+        }
+        int start = position + RECORD_HEADER;
+        int length = payload.remaining();
+        if (length > buffer.capacity() - start) {
+            return false;
+        }
+        buffer.put(start, payload, payload.position(), length);
+        buffer.putInt(position + 4, checksum(start, length));
+        buffer.putInt(position, length);
+        position = start + length;
+        count++;
+        return true;
+    }
+
+    void forEach(Consumer<? super Comment> action) {
+        CommentView view = codec.view();
+        int next = HEADER;
+        for (int i = 0; i < count; i++) {
+            action.accept(view.wrap(buffer, next + RECORD_HEADER).toComment());
+            next += RECORD_HEADER + buffer.getInt(next);
+        }
+    }
+
+    // forces the records written since the last time, true when there were some
+    boolean force() {
+        if (synced == position) {
+            return false;
+        }
+        buffer.force(synced, position - synced);
+        synced = position;
+        return true;
+    }
+
+    // the file can't be truncated while it is mapped, so it is unmapped first and mapped again to its records
+    void seal() throws IOException {
+        force();
+        UNSAFE.invokeCleaner(buffer);
+        try {
+            channel.truncate(position);
+            channel.force(true);
+        } finally {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(position, channel.size()));
+        }
+        sealed = true;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    // an empty segment can't take a comment this big
+    boolean isEmpty() {
+        return count == 0;
+    }
+}
@@ -0,0 +1,309 @@
+package org.example.repositories;
+
+import org.example.codec.CommentCodec;
+import org.example.model.Comment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Appends the comments to a log of memory-mapped files in {@code directory}.
+ * Storing a comment copies it into the mapped segment, and the
+ * {@link FsyncPolicy} decides when the pages are forced to disk. A new
+ * segment is started when the last one is full. On restart, the comments of a
+ * torn or corrupt write at the end of the log are discarded.
+ * <p>
+ * When the codec has an author dictionary, its authors are kept in an
+ * {@link AuthorFile} next to the segments.
+ * <p>
+ * The repository holds a lock on the {@code comments.lock} file of the
+ * directory until it is closed, so a second repository on the same directory,
+ * in this process or another one, fails instead of overwriting the log.
+ */
+public class MappedCommentRepository implements CommentRepository, AutoCloseable {
+
+    static final String LOCK_FILE = "comments.lock";
+    // the directories locked by the repositories of this process
+    private static final Set<Path> LOCKED = ConcurrentHashMap.newKeySet();
+
+    public enum FsyncPolicy {
+        // force the comments of each storeComment or storeComments call before it returns
+        BATCH,
+        // force them from a background thread every fsyncInterval
+        INTERVAL,
+        // let the OS write the pages back, only force when closing
+        OS
+    }
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final int segmentSize;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalNanos;
+    private final CommentCodec codec;
+    // null without an author dictionary
+    private final AuthorFile authors;
+    private final List<LogSegment> segments = new ArrayList<>();
+    // a comment is encoded here before it's written, grown when one doesn't fit
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private final Object lock = new Object();
+    private final Thread syncer;
+    private LogSegment active;
+
+    private volatile boolean closed;
+
+    private final long recovered;
+    private final AtomicLong fsyncs = new AtomicLong();
+
+    public MappedCommentRepository(Path directory, int segmentSize, FsyncPolicy policy, Duration fsyncInterval) {
+        this(directory, segmentSize, policy, fsyncInterval, new CommentCodec());
+    }
+
+    // a codec with an author dictionary must be given the same dictionary on restart
+    public MappedCommentRepository(Path directory, int segmentSize, FsyncPolicy policy, Duration fsyncInterval,
+                                   CommentCodec codec) {
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.policy = policy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        try {
+            this.directory = Files.createDirectories(directory).toRealPath();
+            this.lockChannel = lock();
+            try {
+                this.authors = codec.getDictionary() != null ? AuthorFile.open(directory, codec.getDictionary()) : null;
+                open();
+            } catch (IOException | RuntimeException e) {
+                // so the directory can be opened again
+                unlock();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.recovered = getCommentCount();
+        if (policy == FsyncPolicy.INTERVAL) {
+            this.syncer = new Thread(this::runSyncer, "comment-log-sync");
+            this.syncer.setDaemon(true);
+            this.syncer.start();
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    // released when the channel is closed, or when the process exits
+    private FileChannel lock() throws IOException {
+        // closing a second channel on the lock file would release the lock of the first one
+        if (!LOCKED.add(directory)) {
+            throw new IllegalStateException(directory + " is already used by another comment repository");
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            if (channel.tryLock() == null) {
+                throw new IllegalStateException(directory + " is used by the comment repository of another process");
+            }
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            LOCKED.remove(directory);
+            throw e;
+        }
+    }
+
+    private void unlock() throws IOException {
+        try {
+            lockChannel.close();
+        } finally {
+            LOCKED.remove(directory);
+        }
+    }
+
+    private void open() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(LogSegment::isSegment).sorted().collect(Collectors.toList());
+        }
+        if (files.isEmpty()) {
+            active = LogSegment.create(directory, 0, segmentSize, codec);
+            segments.add(active);
+            // and the author file, when it's new too
+            syncDirectory();
+            return;
+        }
+        // the sealed segments hold the comments up to the offset of the next one
+        for (int i = 0; i < files.size() - 1; i++) {
+            int count = (int) (LogSegment.baseOffset(files.get(i + 1)) - LogSegment.baseOffset(files.get(i)));
+            segments.add(LogSegment.openSealed(files.get(i), count, codec));
+        }
+        active = LogSegment.recover(files.get(files.size() - 1), segmentSize, codec);
+        segments.add(active);
+    }
+
+    @Override
+    public void storeComment(Comment comment) {
+        synchronized (lock) {
+            append(comment);
+            if (policy == FsyncPolicy.BATCH) {
+                force();
+            }
+        }
+    }
+
+    @Override
+    public void storeComments(List<Comment> comments) {
+        synchronized (lock) {
+            comments.forEach(this::append);
+            if (policy == FsyncPolicy.BATCH) {
+                force();
+            }
+        }
+    }
+
+    private void append(Comment comment) {
+        if (closed) {
+            throw new IllegalStateException("Repository is closed");
+        }
+        try {
+            ByteBuffer payload = encode(comment);
+            if (active.append(payload)) {
+                return;
+            }
+            if (active.isEmpty()) {
+                throw new IllegalArgumentException("Comment doesn't fit in a segment of " + segmentSize + " bytes");
+            }
+            active.seal();
+            active = LogSegment.create(directory, active.getBaseOffset() + active.getCount(), segmentSize, codec);
+            segments.add(active);
+            syncDirectory();
+            if (!active.append(payload)) {
+                throw new IllegalArgumentException("Comment doesn't fit in a segment of " + segmentSize + " bytes");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the authors the codec gave an id to are on disk before the record that uses it is in the segment
+    private ByteBuffer encode(Comment comment) throws IOException {
+        record.clear();
+        try {
+            codec.encode(comment, record);
+        } catch (BufferOverflowException e) {
+            // the codec checks the size before writing anything
+            record = ByteBuffer.allocate(Math.max(codec.encodedSize(comment), record.capacity() * 2));
+            codec.encode(comment, record);
+        }
+        if (authors != null && authors.append(codec.getDictionary())) {
+            authors.force();
+        }
+        return record.flip();
+    }
+
+    private void force() {
+        if (active.force()) {
+            fsyncs.incrementAndGet();
+        }
+    }
+
+    // the file of a new segment is only durable once its directory is
+    private void syncDirectory() throws IOException {
+        if (policy == FsyncPolicy.OS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private void runSyncer() {
+        while (!closed) {
+            try {
+                Thread.sleep(fsyncIntervalNanos / 1_000_000, (int) (fsyncIntervalNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                // closing, close() forces what's left
+                return;
+            }
+            synchronized (lock) {
+                if (!closed) {
+                    force();
+                }
+            }
+        }
+    }
+
+    // the comments stored, in order, including the ones recovered on restart
+    public void forEach(Consumer<? super Comment> action) {
+        synchronized (lock) {
+            for (LogSegment segment : segments) {
+                segment.forEach(action);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (syncer != null) {
+            syncer.interrupt();
+            syncer.join();
+        }
+        synchronized (lock) {
+            force();
+            for (LogSegment segment : segments) {
+                segment.close();
+            }
+            if (authors != null) {
+                authors.close();
+            }
+            unlock();
+        }
+    }
+
+    public long getCommentCount() {
+        synchronized (lock) {
+            return active.getBaseOffset() + active.getCount();
+        }
+    }
+
+    public long getRecoveredCount() {
+        return recovered;
+    }
+
+    public int getSegmentCount() {
+        synchronized (lock) {
+            return segments.size();
+        }
+    }
+
+    public long getFsyncCount() {
+        return fsyncs.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedCommentRepository{directory=%s, policy=%s, segments=%d, comments=%d, " +
+                "recovered=%d, fsyncs=%d}", directory, policy, getSegmentCount(), getCommentCount(),
+                getRecoveredCount(), getFsyncCount());
+    }
+}
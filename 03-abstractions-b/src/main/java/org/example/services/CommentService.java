@@ -1,23 +1,168 @@
 package org.example.services;
 
+import org.example.codec.ConcurrentAuthorDictionary;
 import org.example.model.Comment;
 import org.example.proxies.CommentNotificationProxy;
 import org.example.repositories.CommentRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+/**
+ * Publishes comments one by one, or many of them with
+ * {@code publishComments}: the comments are taken from the source a chunk at
+ * a time, and each chunk is stored and sent as one batch. The repository and
+ * the notification proxy keep working on a chunk while the next one is read,
+ * and block the caller when they fall behind, so only a few chunks are ever
+ * in memory, however many comments the source has.
+ */
 @Service
 public class CommentService {
 
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
     private final CommentRepository commentRepository;
     private final CommentNotificationProxy commentNotificationProxy;
+    private final ConcurrentAuthorDictionary authorDictionary;
 
-    public CommentService(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy) {
+    public CommentService(CommentRepository commentRepository, CommentNotificationProxy commentNotificationProxy,
+                          ConcurrentAuthorDictionary authorDictionary) {
         this.commentRepository = commentRepository;
         this.commentNotificationProxy = commentNotificationProxy;
+        this.authorDictionary = authorDictionary;
+    }
+
+    // the comments of an author share a single author string
+    public Comment newComment(String author, String text) {
+        return new Comment(authorDictionary.intern(author), text);
     }
 
     public void publishComment(Comment comment) {
         commentRepository.storeComment(comment);
         commentNotificationProxy.sendComment(comment);
     }
+
+    public PublishStats publishComments(Stream<Comment> comments) {
+        return publishComments(comments, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PublishStats publishComments(Stream<Comment> comments, int chunkSize) {
+        try (comments) {
+            return publishComments(comments.iterator(), chunkSize);
+        }
+    }
+
+    public PublishStats publishComments(Iterator<Comment> comments) {
+        return publishComments(comments, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PublishStats publishComments(Iterator<Comment> comments, int chunkSize) {
+        checkChunkSize(chunkSize);
+        var recorder = new PublishStats.Recorder();
+        List<Comment> chunk = new ArrayList<>(chunkSize);
+        while (comments.hasNext()) {
+            chunk.add(comments.next());
+            if (chunk.size() == chunkSize) {
+                publishChunk(chunk, recorder);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            publishChunk(chunk, recorder);
+        }
+        return recorder.finish();
+    }
+
+    public CompletableFuture<PublishStats> publishComments(Flow.Publisher<Comment> comments) {
+        return publishComments(comments, DEFAULT_CHUNK_SIZE);
+    }
+
+    // the chunks are published on the publisher's thread, which asks for the next chunk once it's done
+    public CompletableFuture<PublishStats> publishComments(Flow.Publisher<Comment> comments, int chunkSize) {
+        checkChunkSize(chunkSize);
+        var subscriber = new ChunkSubscriber(chunkSize);
+        comments.subscribe(subscriber);
+        return subscriber.stats;
+    }
+
+    // the proxy may still be sending the chunk after this returns, so each chunk is a new list
+    private void publishChunk(List<Comment> chunk, PublishStats.Recorder recorder) {
+        long start = System.nanoTime();
+        commentRepository.storeComments(chunk);
+        long stored = System.nanoTime();
+        commentNotificationProxy.sendComments(chunk);
+        recorder.chunk(chunk.size(), stored - start, System.nanoTime() - stored);
+    }
+
+    private static void checkChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+    }
+
+    private final class ChunkSubscriber implements Flow.Subscriber<Comment> {
+
+        private final int chunkSize;
+        private final CompletableFuture<PublishStats> stats = new CompletableFuture<>();
+        private PublishStats.Recorder recorder;
+        private Flow.Subscription subscription;
+        private List<Comment> chunk;
+
+        private ChunkSubscriber(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            recorder = new PublishStats.Recorder();
+            chunk = new ArrayList<>(chunkSize);
+            subscription.request(chunkSize);
+        }
+
+        @Override
+        public void onNext(Comment comment) {
+            if (stats.isDone()) {
+                return;
+            }
+            chunk.add(comment);
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            try {
+                publishChunk(chunk, recorder);
+            } catch (RuntimeException e) {
+                subscription.cancel();
+                stats.completeExceptionally(e);
+                return;
+            }
+            chunk = new ArrayList<>(chunkSize);
+            subscription.request(chunkSize);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            stats.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (stats.isDone()) {
+                return;
+            }
+            try {
+                if (!chunk.isEmpty()) {
+                    publishChunk(chunk, recorder);
+                }
+                stats.complete(recorder.finish());
+            } catch (RuntimeException e) {
+                stats.completeExceptionally(e);
+            }
+        }
+    }
 }
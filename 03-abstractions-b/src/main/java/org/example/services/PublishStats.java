@@ -0,0 +1,99 @@
+package org.example.services;
+
+import java.time.Duration;
+
+/**
+ * What one {@code publishComments} run did. The time of each stage is the
+ * time the run spent in it: when the repository or the notification proxy
+ * can't keep up, they block the run (backpressure), and that shows up as the
+ * stage taking most of the elapsed time.
+ */
+public final class PublishStats {
+
+    private final long comments;
+    private final long chunks;
+    private final long elapsedNanos;
+    private final long readNanos;
+    private final long storeNanos;
+    private final long notifyNanos;
+    private final long maxStoreNanos;
+
+    private PublishStats(Recorder recorder, long elapsedNanos) {
+        this.comments = recorder.comments;
+        this.chunks = recorder.chunks;
+        this.elapsedNanos = elapsedNanos;
+        this.readNanos = elapsedNanos - recorder.storeNanos - recorder.notifyNanos;
+        this.storeNanos = recorder.storeNanos;
+        this.notifyNanos = recorder.notifyNanos;
+        this.maxStoreNanos = recorder.maxStoreNanos;
+    }
+
+    public long getCommentCount() {
+        return comments;
+    }
+
+    public long getChunkCount() {
+        return chunks;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    // comments per second
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : comments * 1e9 / elapsedNanos;
+    }
+
+    // taking the comments from the source and grouping them in chunks
+    public Duration getReadTime() {
+        return Duration.ofNanos(readNanos);
+    }
+
+    public Duration getStoreTime() {
+        return Duration.ofNanos(storeNanos);
+    }
+
+    public Duration getNotifyTime() {
+        return Duration.ofNanos(notifyNanos);
+    }
+
+    // the longest the run waited for the repository to take a chunk
+    public Duration getMaxStoreTime() {
+        return Duration.ofNanos(maxStoreNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PublishStats{comments=%d, chunks=%d, elapsed=%s, throughput=%.0f/s, " +
+                        "read=%.0f%%, store=%.0f%%, notify=%.0f%%, maxStore=%s}", comments, chunks, getElapsed(),
+                getThroughput(), percent(readNanos), percent(storeNanos), percent(notifyNanos), getMaxStoreTime());
+    }
+
+    private double percent(long nanos) {
+        return elapsedNanos == 0 ? 0 : nanos * 100.0 / elapsedNanos;
+    }
+
+    // used by one run, on one thread at a time
+    static final class Recorder {
+
+        private final long start = System.nanoTime();
+        private long comments;
+        private long chunks;
+        private long storeNanos;
+        private long notifyNanos;
+        private long maxStoreNanos;
+
+        void chunk(int size, long storeNanos, long notifyNanos) {
+            comments += size;
+            chunks++;
+            this.storeNanos += storeNanos;
+            this.notifyNanos += notifyNanos;
+            maxStoreNanos = Math.max(maxStoreNanos, storeNanos);
+        }
+
+        PublishStats finish() {
+            return new PublishStats(this, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.codec;
+
+import org.example.model.Comment;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CommentCodecTest {
+
+    private final CommentCodec codec = new CommentCodec();
+    private final AuthorDictionary dictionary = AuthorDictionary.of(List.of("John", "Jane"));
+
+    @Test
+    void roundTripsText() {
+        assertRoundTrip(codec, new Comment("John", "Hello World"));
+        assertRoundTrip(codec, new Comment("", ""));
+        assertRoundTrip(codec, new Comment("Zo\u00eb", "\u00c7a va? \u4f60\u597d \ud83d\ude00"));
+        assertRoundTrip(codec, new Comment("John", "x".repeat(100_000)));
+    }
+
+    @Test
+    void encodesTheUtf8Bytes() {
+        var comment = new Comment("Zo\u00eb", "\u4f60\u597d \ud83d\ude00");
+        byte[] encoded = codec.encode(comment);
+        byte[] text = comment.getText().getBytes(StandardCharsets.UTF_8);
+
+        CommentView view = codec.view().wrap(ByteBuffer.wrap(encoded), 0);
+        byte[] viewed = new byte[view.getTextBytes().remaining()];
+        view.getTextBytes().get(viewed);
+        assertArrayEquals(text, viewed);
+        assertEquals(encoded.length, codec.encodedSize(comment));
+    }
+
+    @Test
+    void replacesUnpairedSurrogates() {
+        var comment = new Comment("John", "a\ud83db");
+        assertEquals("a?b", codec.decode(codec.encode(comment)).getText());
+    }
+
+    @Test
+    void writesDictionaryAuthorsAsIds() {
+        var withDictionary = new CommentCodec(dictionary);
+        var known = new Comment("Jane", "Hello World");
+        var unknown = new Comment("Joe", "Hello World");
+
+        assertRoundTrip(withDictionary, known);
+        assertRoundTrip(withDictionary, unknown);
+        assertEquals(codec.encodedSize(known) - "Jane".length(), withDictionary.encodedSize(known));
+        assertEquals(1, withDictionary.view().wrap(ByteBuffer.wrap(withDictionary.encode(known)), 0).getAuthorId());
+        assertEquals(AuthorDictionary.NOT_FOUND,
+                withDictionary.view().wrap(ByteBuffer.wrap(withDictionary.encode(unknown)), 0).getAuthorId());
+        // the reader needs the dictionary too
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(withDictionary.encode(known)));
+    }
+
+    @Test
+    void decodesConsecutiveCommentsInADirectBuffer() {
+        var withDictionary = new CommentCodec(dictionary);
+        List<Comment> comments = List.of(new Comment("John", "first"), new Comment("Joe", "second"),
+                new Comment("Jane", "third"));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        comments.forEach(comment -> withDictionary.encode(comment, buffer));
+        buffer.flip();
+
+        for (Comment comment : comments) {
+            assertSameComment(comment, withDictionary.decode(buffer));
+        }
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void viewsWithoutMovingTheBuffer() {
+        byte[] encoded = codec.encode(new Comment("John", "Hello World"));
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3).put(3, encoded);
+
+        CommentView view = codec.view().wrap(buffer, 3);
+        assertEquals("John", view.getAuthor());
+        assertEquals("Hello World", view.getText());
+        assertEquals(encoded.length, view.getEncodedSize());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void failsWhenTheBufferIsTooSmall() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        assertThrows(BufferOverflowException.class, () -> codec.encode(new Comment("John", "Hello World"), buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void rejectsOtherVersionsAndTruncatedComments() {
+        byte[] encoded = codec.encode(new Comment("John", "Hello World"));
+        assertRejectsTruncated(codec, encoded);
+        assertRejectsTruncated(new CommentCodec(dictionary), new CommentCodec(dictionary).encode(new Comment("Jane", "Hi")));
+        encoded[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(encoded));
+    }
+
+    @Test
+    void rejectsLengthsPastTheBuffer() {
+        // an author of 2^32 - 1 bytes, and one of Integer.MAX_VALUE bytes
+        byte[] unsigned = {CommentCodec.VERSION, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 0};
+        byte[] overflow = {CommentCodec.VERSION, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0};
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(unsigned));
+        assertThrows(IllegalArgumentException.class, () -> codec.view().wrap(ByteBuffer.wrap(overflow), 0));
+        assertThrows(IllegalArgumentException.class, () -> codec.view().wrap(ByteBuffer.wrap(overflow), -1));
+    }
+
+    private static void assertRejectsTruncated(CommentCodec codec, byte[] encoded) {
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated), "truncated at " + length);
+        }
+    }
+
+    private static void assertRoundTrip(CommentCodec codec, Comment comment) {
+        assertSameComment(comment, codec.decode(codec.encode(comment)));
+    }
+
+    private static void assertSameComment(Comment expected, Comment actual) {
+        assertEquals(expected.getAuthor(), actual.getAuthor());
+        assertEquals(expected.getText(), actual.getText());
+    }
+}
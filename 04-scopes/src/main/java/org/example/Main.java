@@ -2,9 +2,12 @@ package org.example;
 
 import org.example.config.ProjectConfig;
 import org.example.model.Comment;
+import org.example.processors.CommentProcessorPool;
 import org.example.services.CommentService;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
+import java.util.List;
+
 public class Main {
 
     public static void main(String[] args) {
@@ -14,5 +17,13 @@ public class Main {
         var service = context.getBean(CommentService.class);
         service.publishComment(new Comment("John", "Hello World"));
         service.publishComment(new Comment("Jane", "Bye!"));
+
+        // the comment without a text is rejected, the others are published in order
+        var result = service.publishComments(List.of(new Comment("John", "First"), new Comment("Jane", ""),
+                new Comment("John", "Last")));
+        System.out.println(result + " " + result.getRejections());
+
+        // the second publish reuses the processor created for the first one
+        System.out.println(context.getBean(CommentProcessorPool.class));
     }
 }
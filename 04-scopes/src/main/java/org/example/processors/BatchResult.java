@@ -0,0 +1,68 @@
+package org.example.processors;
+
+import org.example.model.Comment;
+
+import java.util.List;
+
+/**
+ * What {@link CommentBatchProcessor} did with a batch: the processed comments,
+ * in the order of the batch, and the comments it rejected, with why.
+ */
+public final class BatchResult {
+
+    private final List<Comment> processed;
+    private final List<Rejection> rejections;
+
+    BatchResult(List<Comment> processed, List<Rejection> rejections) {
+        this.processed = processed;
+        this.rejections = rejections;
+    }
+
+    public List<Comment> getProcessed() {
+        return processed;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public boolean hasRejections() {
+        return !rejections.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{processed=" + processed.size() + ", rejected=" + rejections.size() + "}";
+    }
+
+    public static final class Rejection {
+
+        private final int index;
+        private final Comment comment;
+        private final String reason;
+
+        Rejection(int index, Comment comment, String reason) {
+            this.index = index;
+            this.comment = comment;
+            this.reason = reason;
+        }
+
+        // the position of the comment in the batch
+        public int getIndex() {
+            return index;
+        }
+
+        public Comment getComment() {
+            return comment;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "comment " + index + ": " + reason;
+        }
+    }
+}
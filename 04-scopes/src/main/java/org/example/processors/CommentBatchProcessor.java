@@ -0,0 +1,135 @@
+package org.example.processors;
+
+import org.example.model.Comment;
+import org.example.processors.BatchResult.Rejection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates and processes a batch of comments on a {@link ForkJoinPool}. The
+ * batch is split in halves until the parts are small enough, and each part
+ * is done by one worker with a {@link CommentProcessor} of its own. The
+ * workers only write the slots of their own part in the result array, and
+ * their rejections are joined left to right, so the result has the order of
+ * the batch without any locking. Batches smaller than a part are done on the
+ * caller's thread.
+ */
+@Component
+public class CommentBatchProcessor {
+
+    // below that, splitting costs more than it saves
+    static final int MIN_PART_SIZE = 1024;
+    // parts per worker, so the ones that finish early can steal the rest
+    static final int PARTS_PER_WORKER = 8;
+
+    private final CommentProcessorPool processorPool;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public CommentBatchProcessor(CommentProcessorPool processorPool) {
+        this(processorPool, ForkJoinPool.commonPool());
+    }
+
+    public CommentBatchProcessor(CommentProcessorPool processorPool, ForkJoinPool pool) {
+        this.processorPool = processorPool;
+        this.pool = pool;
+    }
+
+    public BatchResult process(List<Comment> comments) {
+        Comment[] input = comments.toArray(new Comment[0]);
+        Comment[] processed = new Comment[input.length];
+        int partSize = Math.max(MIN_PART_SIZE, input.length / (pool.getParallelism() * PARTS_PER_WORKER));
+        var task = new Part(input, processed, 0, input.length, partSize);
+        List<Rejection> rejections = input.length <= partSize ? task.compute() : pool.invoke(task);
+        return new BatchResult(compact(processed, rejections), rejections);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // the slots of the rejected comments are left empty
+    private static List<Comment> compact(Comment[] processed, List<Rejection> rejections) {
+        if (rejections.isEmpty()) {
+            return Collections.unmodifiableList(Arrays.asList(processed));
+        }
+        List<Comment> comments = new ArrayList<>(processed.length - rejections.size());
+        for (Comment comment : processed) {
+            if (comment != null) {
+                comments.add(comment);
+            }
+        }
+        return Collections.unmodifiableList(comments);
+    }
+
+    private final class Part extends RecursiveTask<List<Rejection>> {
+
+        private final Comment[] input;
+        private final Comment[] processed;
+        private final int from;
+        private final int to;
+        private final int partSize;
+
+        private Part(Comment[] input, Comment[] processed, int from, int to, int partSize) {
+            this.input = input;
+            this.processed = processed;
+            this.from = from;
+            this.to = to;
+            this.partSize = partSize;
+        }
+
+        @Override
+        protected List<Rejection> compute() {
+            if (to - from <= partSize) {
+                return processPart();
+            }
+            int middle = (from + to) >>> 1;
+            var right = new Part(input, processed, middle, to, partSize);
+            right.fork();
+            List<Rejection> left = new Part(input, processed, from, middle, partSize).compute();
+            return join(left, right.join());
+        }
+
+        private List<Rejection> processPart() {
+            List<Rejection> rejections = List.of();
+            var processor = processorPool.borrow();
+            try {
+                for (int i = from; i < to; i++) {
+                    Comment comment = input[i];
+                    String reason = CommentProcessor.rejectionReason(comment);
+                    if (reason == null) {
+                        processed[i] = processor.process(comment);
+                        continue;
+                    }
+                    if (rejections.isEmpty()) {
+                        rejections = new ArrayList<>();
+                    }
+                    rejections.add(new Rejection(i, comment, reason));
+                }
+            } finally {
+                processorPool.release(processor);
+            }
+            return rejections;
+        }
+
+        private List<Rejection> join(List<Rejection> left, List<Rejection> right) {
+            if (right.isEmpty()) {
+                return left;
+            }
+            if (left.isEmpty()) {
+                return right;
+            }
+            List<Rejection> rejections = new ArrayList<>(left.size() + right.size());
+            rejections.addAll(left);
+            rejections.addAll(right);
+            return rejections;
+        }
+    }
+}
@@ -6,16 +6,22 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Component
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
 public class CommentProcessor {
 
-    private static int count;
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    // which instance this is, the pool and the batch processor use several at once
+    private final int id;
 
     private final CommentRepository repository;
 
     public CommentProcessor(CommentRepository repository) {
-        System.out.println("CommentProcessor instance: " + ++count);
+        this.id = INSTANCES.incrementAndGet();
+        System.out.println("CommentProcessor instance: " + id);
         this.repository = repository;
     }
 
@@ -30,11 +36,33 @@ public class CommentProcessor {
     }
 
     public void processComment() {
-        comment = new Comment(comment.getAuthor(), comment.getText() + " processed by " + count);
+        comment = process(comment);
+    }
+
+    // the same processing on a comment of the caller, which the processor doesn't keep
+    public Comment process(Comment comment) {
+        return new Comment(comment.getAuthor(), comment.getText() + " processed by " + id);
+    }
+
+    public void reset() {
+        comment = null;
     }
 
     public boolean validateComment() {
-        return comment.getAuthor() != null && !comment.getAuthor().isEmpty() &&
-                comment.getText() != null && !comment.getText().isEmpty();
+        return rejectionReason(comment) == null;
+    }
+
+    // why the comment isn't valid, null when it is
+    public static String rejectionReason(Comment comment) {
+        if (comment == null) {
+            return "no comment";
+        }
+        if (comment.getAuthor() == null || comment.getAuthor().isEmpty()) {
+            return "no author";
+        }
+        if (comment.getText() == null || comment.getText().isEmpty()) {
+            return "no text";
+        }
+        return null;
     }
 }
@@ -0,0 +1,113 @@
+package org.example.processors;
+
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recycles {@link CommentProcessor} prototypes so the publish path does not go
+ * through bean creation on every call. Slots are claimed with CAS, so borrowing
+ * never blocks; when every slot is empty a new prototype is created, and when
+ * every slot is taken a released processor is left to the garbage collector.
+ */
+@Component
+public class CommentProcessorPool {
+
+    private final ListableBeanFactory beanFactory;
+    private final String processorName;
+    private final AtomicReferenceArray<CommentProcessor> slots;
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+
+    // the bean is found by type once, a miss only looks its name up
+    public CommentProcessorPool(ListableBeanFactory beanFactory) {
+        String[] names = beanFactory.getBeanNamesForType(CommentProcessor.class);
+        if (names.length == 0) {
+            throw new NoSuchBeanDefinitionException(CommentProcessor.class);
+        }
+        if (names.length > 1) {
+            throw new NoUniqueBeanDefinitionException(CommentProcessor.class, names);
+        }
+        this.beanFactory = beanFactory;
+        this.processorName = names[0];
+        this.slots = new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public CommentProcessor borrow() {
+        long start = System.nanoTime();
+        int size = slots.length();
+        int first = firstSlot(size);
+        for (int i = 0; i < size; i++) {
+            int slot = (first + i) % size;
+            CommentProcessor processor = slots.get(slot);
+            if (processor != null && slots.compareAndSet(slot, processor, null)) {
+                recordBorrow(start);
+                return processor;
+            }
+        }
+        misses.increment();
+        CommentProcessor processor = beanFactory.getBean(processorName, CommentProcessor.class);
+        recordBorrow(start);
+        return processor;
+    }
+
+    public void release(CommentProcessor processor) {
+        processor.reset();
+        int size = slots.length();
+        int first = firstSlot(size);
+        for (int i = 0; i < size; i++) {
+            int slot = (first + i) % size;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, processor)) {
+                return;
+            }
+        }
+    }
+
+    // threads start probing at different slots to avoid contending on the same ones
+    private static int firstSlot(int size) {
+        return (int) (Thread.currentThread().getId() % size);
+    }
+
+    private void recordBorrow(long start) {
+        long elapsed = System.nanoTime() - start;
+        borrows.increment();
+        borrowNanos.add(elapsed);
+        maxBorrowNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    public long getBorrowCount() {
+        return borrows.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public Duration getAverageBorrowWait() {
+        long count = borrows.sum();
+        return Duration.ofNanos(count == 0 ? 0 : borrowNanos.sum() / count);
+    }
+
+    public Duration getMaxBorrowWait() {
+        return Duration.ofNanos(maxBorrowNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CommentProcessorPool{capacity=%d, borrows=%d, misses=%d, avgWait=%s, maxWait=%s}",
+                getCapacity(), getBorrowCount(), getMissCount(), getAverageBorrowWait(), getMaxBorrowWait());
+    }
+}
@@ -1,28 +1,46 @@
 package org.example.services;
 
 import org.example.model.Comment;
-import org.example.processors.CommentProcessor;
-import org.springframework.context.ApplicationContext;
+import org.example.processors.BatchResult;
+import org.example.processors.CommentBatchProcessor;
+import org.example.processors.CommentProcessorPool;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class CommentService {
 
-    private final ApplicationContext context;
+    private final CommentProcessorPool processorPool;
+    private final CommentBatchProcessor batchProcessor;
 
-    public CommentService(ApplicationContext context) {
-        this.context = context;
+    public CommentService(CommentProcessorPool processorPool, CommentBatchProcessor batchProcessor) {
+        this.processorPool = processorPool;
+        this.batchProcessor = batchProcessor;
     }
 
     public void publishComment(Comment comment) {
 
-        var processor = context.getBean(CommentProcessor.class);
-        processor.setComment(comment);
-        if (!processor.validateComment()) {
-            throw new IllegalArgumentException();
+        var processor = processorPool.borrow();
+        try {
+            processor.setComment(comment);
+            if (!processor.validateComment()) {
+                throw new IllegalArgumentException();
+            }
+            processor.processComment();
+            var processedComment = processor.getComment();
+            System.out.println("Published comment: " + processedComment.getText());
+        } finally {
+            processorPool.release(processor);
+        }
+    }
+
+    // the invalid comments are reported in the result, the others are still published
+    public BatchResult publishComments(List<Comment> comments) {
+        var result = batchProcessor.process(comments);
+        for (Comment processedComment : result.getProcessed()) {
+            System.out.println("Published comment: " + processedComment.getText());
         }
-        processor.processComment();
-        var processedComment = processor.getComment();
-        System.out.println("Published comment: " + processedComment.getText());
+        return result;
     }
 }
@@ -0,0 +1,165 @@
+package org.example.aop;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A {@link ProceedingJoinPoint} that works directly on the method invocation
+ * of the proxy. Unlike Spring's join point, {@link #getArgs()} returns the
+ * arguments of the invocation instead of a copy, the signature is shared by
+ * all the calls of the method, and the first {@link #proceed()} continues the
+ * invocation itself. Only the next ones, for an advice that retries, proceed
+ * on a clone of it like Spring's join point does.
+ */
+public final class CachedJoinPoint implements ProceedingJoinPoint, JoinPoint.StaticPart {
+
+    // where the invocation is in its chain, which a clone taken after proceeding has lost
+    private static final VarHandle INTERCEPTOR_INDEX;
+
+    static {
+        try {
+            INTERCEPTOR_INDEX = MethodHandles.privateLookupIn(ReflectiveMethodInvocation.class, MethodHandles.lookup())
+                    .findVarHandle(ReflectiveMethodInvocation.class, "currentInterceptorIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ProxyMethodInvocation invocation;
+    private final CachedMethodSignature signature;
+    private boolean proceeded;
+    private int interceptorIndex;
+
+    public CachedJoinPoint(ProxyMethodInvocation invocation, CachedMethodSignature signature) {
+        this.invocation = invocation;
+        this.signature = signature;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return next(null).proceed();
+    }
+
+    @Override
+    public Object proceed(Object[] args) throws Throwable {
+        if (args.length != invocation.getArguments().length) {
+            throw new IllegalArgumentException("Expecting " + invocation.getArguments().length +
+                    " arguments to proceed, but was passed " + args.length + " arguments");
+        }
+        invocation.setArguments(args);
+        return next(args).proceed();
+    }
+
+    // the invocation the first time, then a clone at the same place in the chain
+    private ProxyMethodInvocation next(Object[] args) {
+        if (!(invocation instanceof ReflectiveMethodInvocation)) {
+            return (ProxyMethodInvocation) (args == null ? invocation.invocableClone() : invocation.invocableClone(args));
+        }
+        if (!proceeded) {
+            proceeded = true;
+            interceptorIndex = (int) INTERCEPTOR_INDEX.get((ReflectiveMethodInvocation) invocation);
+            return invocation;
+        }
+        var clone = (ReflectiveMethodInvocation) (args == null ? invocation.invocableClone()
+                : invocation.invocableClone(args));
+        INTERCEPTOR_INDEX.set(clone, interceptorIndex);
+        return clone;
+    }
+
+    // only code woven by ajc proceeds through a closure, this join point proceeds through the invocation
+    @Override
+    public void set$AroundClosure(AroundClosure aroundClosure) {
+    }
+
+    @Override
+    public Object getThis() {
+        return invocation.getProxy();
+    }
+
+    @Override
+    public Object getTarget() {
+        return invocation.getThis();
+    }
+
+    // the array of the invocation itself, don't change it
+    @Override
+    public Object[] getArgs() {
+        return invocation.getArguments();
+    }
+
+    @Override
+    public Signature getSignature() {
+        return signature;
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+        return new TargetLocation();
+    }
+
+    @Override
+    public String getKind() {
+        return METHOD_EXECUTION;
+    }
+
+    @Override
+    public int getId() {
+        return 0;
+    }
+
+    @Override
+    public StaticPart getStaticPart() {
+        return this;
+    }
+
+    @Override
+    public String toShortString() {
+        return "execution(" + signature.toShortString() + ")";
+    }
+
+    @Override
+    public String toLongString() {
+        return "execution(" + signature.toLongString() + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "execution(" + signature + ")";
+    }
+
+    // like the one of Spring's join point: a proxy only knows the class of the target, not the file or the line
+    private final class TargetLocation implements SourceLocation {
+
+        @Override
+        public Class<?> getWithinType() {
+            if (invocation.getThis() == null) {
+                throw new UnsupportedOperationException("No source location joinpoint available: target is null");
+            }
+            return invocation.getThis().getClass();
+        }
+
+        @Override
+        public String getFileName() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getLine() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @Deprecated
+        public int getColumn() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.aop;
+
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Configures the proxy creator registered by {@code @EnableAspectJAutoProxy}:
+ * <ul>
+ *     <li>its advisors use a {@link CachingAroundAdvice} for {@code @Around} methods;</li>
+ *     <li>its proxies are frozen, so CGLIB fixes the interceptor chain of each method
+ *     when it creates the proxy, and calls the methods no pointcut matches directly
+ *     on the target, without looking up or building a chain.</li>
+ * </ul>
+ * Declare it with a {@code static} {@code @Bean} method.
+ */
+public class CachingAopPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String name : beanFactory.getBeanNamesForType(AnnotationAwareAspectJAutoProxyCreator.class, true, false)) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(name);
+            bd.getPropertyValues().add("aspectJAdvisorFactory", new CachingAspectJAdvisorFactory(beanFactory));
+            bd.getPropertyValues().add("frozen", true);
+        }
+    }
+}
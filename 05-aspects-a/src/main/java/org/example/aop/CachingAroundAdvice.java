@@ -0,0 +1,60 @@
+package org.example.aop;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.AspectInstanceFactory;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code @Around} advice for advice methods whose only parameter is the
+ * {@link ProceedingJoinPoint}. Spring's advice stores a new join point in the
+ * user attributes of every invocation (a map), the join point copies the
+ * arguments and creates the signature, and the advice method is called by
+ * reflection with a new argument array. This one passes a
+ * {@link CachedJoinPoint} with the signature of the method, created once, to
+ * a method handle of the advice method.
+ */
+public class CachingAroundAdvice extends AspectJAroundAdvice {
+
+    private final MethodHandle adviceMethod;
+    private final Map<Method, CachedMethodSignature> signatures = new ConcurrentHashMap<>();
+
+    public CachingAroundAdvice(Method aspectJAroundAdviceMethod, AspectJExpressionPointcut pointcut,
+                               AspectInstanceFactory aspectInstanceFactory) {
+        super(aspectJAroundAdviceMethod, pointcut, aspectInstanceFactory);
+        try {
+            ReflectionUtils.makeAccessible(aspectJAroundAdviceMethod);
+            this.adviceMethod = MethodHandles.lookup().unreflect(aspectJAroundAdviceMethod)
+                    .asType(MethodType.methodType(Object.class, Object.class, ProceedingJoinPoint.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static boolean supports(Method adviceMethod) {
+        return adviceMethod.getParameterCount() == 1 && adviceMethod.getParameterTypes()[0] == ProceedingJoinPoint.class;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        if (!(mi instanceof ProxyMethodInvocation)) {
+            throw new IllegalStateException("MethodInvocation is not a Spring ProxyMethodInvocation: " + mi);
+        }
+        CachedMethodSignature signature = signatures.get(mi.getMethod());
+        if (signature == null) {
+            signature = signatures.computeIfAbsent(mi.getMethod(), CachedMethodSignature::new);
+        }
+        var joinPoint = new CachedJoinPoint((ProxyMethodInvocation) mi, signature);
+        return adviceMethod.invokeExact(getAspectInstanceFactory().getAspectInstance(), (ProceedingJoinPoint) joinPoint);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.aop;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.annotation.MetadataAwareAspectInstanceFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the advisors of the {@code @Aspect} beans like Spring does, but uses
+ * a {@link CachingAroundAdvice} for the {@code @Around} methods it supports.
+ */
+public class CachingAspectJAdvisorFactory extends ReflectiveAspectJAdvisorFactory {
+
+    public CachingAspectJAdvisorFactory(BeanFactory beanFactory) {
+        super(beanFactory);
+    }
+
+    @Override
+    public Advice getAdvice(Method candidateAdviceMethod, AspectJExpressionPointcut expressionPointcut,
+                            MetadataAwareAspectInstanceFactory aspectInstanceFactory, int declarationOrder,
+                            String aspectName) {
+        Advice advice = super.getAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory,
+                declarationOrder, aspectName);
+        if (!(advice instanceof AspectJAroundAdvice) || !CachingAroundAdvice.supports(candidateAdviceMethod)) {
+            return advice;
+        }
+        var caching = new CachingAroundAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+        caching.setAspectName(aspectName);
+        caching.setDeclarationOrder(declarationOrder);
+        caching.calculateArgumentBindings();
+        return caching;
+    }
+}
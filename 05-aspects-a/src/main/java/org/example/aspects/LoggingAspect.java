@@ -3,15 +3,14 @@ package org.example.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.example.logging.AsyncLogger;
 import org.springframework.stereotype.Component;
 
-import java.util.logging.Logger;
-
 @Component
 @Aspect
 public class LoggingAspect {
 
-    private Logger logger = Logger.getLogger(LoggingAspect.class.getName());
+    private final AsyncLogger logger = AsyncLogger.getLogger(LoggingAspect.class.getName());
 
     @Around("execution(* org.example.services.CommentService.publishComment(..))")
     public void log(ProceedingJoinPoint joinPoint) throws Throwable {
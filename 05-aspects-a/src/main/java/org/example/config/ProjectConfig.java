@@ -1,5 +1,7 @@
 package org.example.config;
 
+import org.example.aop.CachingAopPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -8,4 +10,10 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 @ComponentScan(basePackages = {"org.example.services", "org.example.aspects"})
 @EnableAspectJAutoProxy
 public class ProjectConfig {
+
+    // faster @Around advice, see CachingAroundAdvice
+    @Bean
+    public static CachingAopPostProcessor cachingAopPostProcessor() {
+        return new CachingAopPostProcessor();
+    }
 }
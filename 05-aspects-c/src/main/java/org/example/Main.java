@@ -1,5 +1,7 @@
 package org.example;
 
+import org.example.aspects.MemoizingAspect;
+import org.example.aspects.TimingAspect;
 import org.example.config.ProjectConfig;
 import org.example.model.Comment;
 import org.example.services.CommentService;
@@ -17,5 +19,12 @@ public class Main {
         service.publishComment(comment);
         service.deleteComment(comment);
         service.editComment(comment);
+
+        // the second call gets the comment from the cache, without calling the method
+        service.findComment("John");
+        service.findComment("John");
+        System.out.println(context.getBean(MemoizingAspect.class).getStats());
+
+        System.out.print(context.getBean(TimingAspect.class).getTimers().report());
     }
 }
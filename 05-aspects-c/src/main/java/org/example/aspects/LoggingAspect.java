@@ -3,21 +3,20 @@ package org.example.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.example.logging.AsyncLogger;
 import org.springframework.stereotype.Component;
 
-import java.util.logging.Logger;
-
 @Component
 @Aspect
 public class LoggingAspect {
 
-    private final Logger logger = Logger.getLogger(LoggingAspect.class.getName());
+    private final AsyncLogger logger = AsyncLogger.getLogger(LoggingAspect.class.getName());
 
-    @Around("@annotation(ToLog)")
+    @Around("execution(* *(..)) && @annotation(org.example.aspects.ToLog)")
     public void log(ProceedingJoinPoint joinPoint) throws Throwable {
         String methodName = joinPoint.getSignature().getName();
-        logger.info("Method " + methodName + " will execute");
+        logger.info("Method {} will execute", methodName);
         joinPoint.proceed();
-        logger.info("Method " + methodName + " executed");
+        logger.info("Method {} executed", methodName);
     }
 }
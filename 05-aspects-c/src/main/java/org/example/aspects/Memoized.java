@@ -0,0 +1,21 @@
+package org.example.aspects;
+
+import org.example.cache.MemoCache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// the method returns the same value for the same arguments, MemoizingAspect caches it
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Memoized {
+
+    int maximumSize() default 1000;
+
+    // 0 keeps the values until they are evicted
+    long ttlMillis() default 0;
+
+    MemoCache.Eviction eviction() default MemoCache.Eviction.TINY_LFU;
+}
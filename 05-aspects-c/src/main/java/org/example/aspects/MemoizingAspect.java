@@ -0,0 +1,103 @@
+package org.example.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.cache.CacheStats;
+import org.example.cache.MemoCache;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// returns the cached value of a @Memoized method when it was called with the same arguments, without calling it
+@Component
+@Aspect
+public class MemoizingAspect {
+
+    // the method of the signature is the one of the interface behind a JDK proxy, not the annotated one
+    private final Map<MethodClassKey, Method> targetMethods = new ConcurrentHashMap<>();
+    private final Map<Method, MemoCache<Object, Object>> caches = new ConcurrentHashMap<>();
+
+    @Around("execution(* *(..)) && @annotation(org.example.aspects.Memoized)")
+    public Object memoize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = targetMethod(joinPoint);
+        MemoCache<Object, Object> cache = caches.get(method);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(method, MemoizingAspect::newCache);
+        }
+        return cache.get(key(joinPoint.getArgs()), joinPoint::proceed);
+    }
+
+    private Method targetMethod(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        var key = new MethodClassKey(method, targetClass);
+        Method targetMethod = targetMethods.get(key);
+        if (targetMethod == null) {
+            targetMethod = targetMethods.computeIfAbsent(key, k -> AopUtils.getMostSpecificMethod(method, targetClass));
+        }
+        return targetMethod;
+    }
+
+    private static MemoCache<Object, Object> newCache(Method method) {
+        Memoized memoized = AnnotationUtils.findAnnotation(method, Memoized.class);
+        if (memoized == null) {
+            throw new IllegalStateException("No @Memoized annotation on " + method);
+        }
+        return new MemoCache<>(memoized.maximumSize(), memoized.ttlMillis(), memoized.eviction());
+    }
+
+    // the argument itself when there is only one, the arguments compared deeply otherwise
+    private static Object key(Object[] args) {
+        if (args.length == 1 && args[0] != null && !args[0].getClass().isArray()) {
+            return args[0];
+        }
+        return new ArgumentsKey(args.clone());
+    }
+
+    public Map<String, CacheStats> getStats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((method, cache) -> stats.put(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                cache.stats()));
+        return stats;
+    }
+
+    public void clear() {
+        caches.values().forEach(MemoCache::clear);
+    }
+
+    // the arrays among the arguments are compared by their content, not their identity
+    private static final class ArgumentsKey {
+
+        private final Object[] args;
+        private final int hash;
+
+        private ArgumentsKey(Object[] args) {
+            this.args = args;
+            this.hash = Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ArgumentsKey && Arrays.deepEquals(args, ((ArgumentsKey) o).args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(args);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.metrics.MethodTimers;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+// records how long the @Timed methods take, whether they return or throw
+@Component
+@Aspect
+public class TimingAspect implements DisposableBean {
+
+    private final MethodTimers timers = new MethodTimers();
+
+    @Around("execution(* *(..)) && @annotation(org.example.aspects.Timed)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timers.timer(((MethodSignature) joinPoint.getSignature()).getMethod()).record(elapsed);
+        }
+    }
+
+    public MethodTimers getTimers() {
+        return timers;
+    }
+
+    @Override
+    public void destroy() {
+        timers.close();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.cache;
+
+/**
+ * What a {@link MemoCache} has done so far.
+ */
+public final class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long loadFailures;
+    private final long evictions;
+    private final long rejections;
+    private final long expirations;
+    private final int size;
+
+    CacheStats(long hits, long misses, long loadFailures, long evictions, long rejections, long expirations,
+               int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loadFailures = loadFailures;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.expirations = expirations;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    // the calls that had to wait for a value, each key loads once however many calls miss it together
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // the values TinyLFU didn't keep because they were asked for less than the one they would replace
+    public long getRejections() {
+        return rejections;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRate=%.2f, loadFailures=%d, evictions=%d, rejections=%d, "
+                + "expirations=%d, size=%d", hits, misses, getHitRate(), loadFailures, evictions, rejections,
+                expirations, size);
+    }
+}
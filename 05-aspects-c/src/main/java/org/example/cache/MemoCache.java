@@ -0,0 +1,223 @@
+package org.example.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache for the results of a method.
+ * <ul>
+ *     <li>Reads don't lock: a hit is a lookup in a {@link ConcurrentHashMap} and
+ *     marks the entry as recently used.</li>
+ *     <li>When it's full, the entry to evict is chosen like LRU, with the CLOCK
+ *     algorithm: a hand goes round the entries, skipping (and unmarking) the
+ *     ones used since it last passed. Expired entries go first.</li>
+ *     <li>With {@link Eviction#TINY_LFU}, a new value only replaces that entry
+ *     if its key has been asked for more often, so a burst of keys used once
+ *     doesn't push out the popular ones.</li>
+ *     <li>When several threads miss the same key, only one of them calls the
+ *     loader, the others wait for its value (or its exception, which isn't
+ *     cached).</li>
+ * </ul>
+ */
+public class MemoCache<K, V> {
+
+    public enum Eviction {
+        LRU, TINY_LFU
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Throwable;
+    }
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final Eviction eviction;
+
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+
+    // the clock, changed under the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Node<K, V>[] clock;
+    private int size;
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    // ttlMillis 0 keeps the values until they are evicted
+    @SuppressWarnings("unchecked")
+    public MemoCache(int maximumSize, long ttlMillis, Eviction eviction) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.eviction = eviction;
+        this.sketch = eviction == Eviction.TINY_LFU ? new FrequencySketch(maximumSize) : null;
+        this.clock = new Node[maximumSize];
+    }
+
+    public V get(K key, Loader<? extends V> loader) throws Throwable {
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+        Node<K, V> node = entries.get(key);
+        if (node != null) {
+            if (!node.isExpired(ttlNanos)) {
+                node.referenced = true;
+                hits.increment();
+                return node.value;
+            }
+            expire(node);
+        }
+        misses.increment();
+        var future = new CompletableFuture<V>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V value = loader.load();
+            put(key, value);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            loadFailures.increment();
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Throwable {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void put(K key, V value) {
+        var node = new Node<>(key, value);
+        lock.lock();
+        try {
+            Node<K, V> old = entries.get(key);
+            if (old != null) {
+                node.index = old.index;
+                clock[old.index] = node;
+                entries.put(key, node);
+                return;
+            }
+            if (size < maximumSize) {
+                node.index = size++;
+            } else {
+                Node<K, V> victim = victim();
+                if (sketch != null && !victim.isExpired(ttlNanos)
+                        && sketch.frequency(key) <= sketch.frequency(victim.key)) {
+                    rejections.increment();
+                    return;
+                }
+                entries.remove(victim.key, victim);
+                evictions.increment();
+                node.index = victim.index;
+            }
+            clock[node.index] = node;
+            entries.put(key, node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the first expired entry, or not used since the hand last passed
+    private Node<K, V> victim() {
+        while (true) {
+            Node<K, V> node = clock[hand];
+            hand = (hand + 1) % size;
+            if (node.isExpired(ttlNanos) || !node.referenced) {
+                return node;
+            }
+            node.referenced = false;
+        }
+    }
+
+    private void expire(Node<K, V> node) {
+        lock.lock();
+        try {
+            // another thread may have replaced or expired it already
+            if (clock[node.index] != node) {
+                return;
+            }
+            entries.remove(node.key, node);
+            expirations.increment();
+            // the last entry takes its place, so the clock has no holes
+            Node<K, V> last = clock[--size];
+            clock[size] = null;
+            if (last != node) {
+                last.index = node.index;
+                clock[node.index] = last;
+            }
+            if (hand >= size) {
+                hand = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            for (int i = 0; i < size; i++) {
+                clock[i] = null;
+            }
+            size = 0;
+            hand = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadFailures.sum(), evictions.sum(), rejections.sum(),
+                expirations.sum(), entries.size());
+    }
+
+    private static final class Node<K, V> {
+
+        final K key;
+        final V value;
+        final long created = System.nanoTime();
+        volatile boolean referenced;
+        // its place in the clock, changed under the lock
+        int index;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean isExpired(long ttlNanos) {
+            return ttlNanos > 0 && System.nanoTime() - created >= ttlNanos;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -8,4 +9,9 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 @ComponentScan(basePackages = {"org.example.services", "org.example.aspects"})
 @EnableAspectJAutoProxy
 public class ProjectConfig {
+
+    @Bean
+    public static WovenAspectsPostProcessor wovenAspectsPostProcessor() {
+        return new WovenAspectsPostProcessor();
+    }
 }
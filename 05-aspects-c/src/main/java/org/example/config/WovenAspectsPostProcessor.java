@@ -0,0 +1,38 @@
+package org.example.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * When the aspects are woven by ajc ({@code mvn -Pctw}), the woven code calls
+ * the instance returned by the static {@code aspectOf()} method ajc adds to
+ * each aspect, and Spring AOP ignores the aspect. This makes the aspect beans
+ * that same instance, so whatever Spring injects in them is what the woven
+ * code uses. Without weaving there is no {@code aspectOf()} and nothing changes.
+ */
+public class WovenAspectsPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd.getBeanClassName() == null || bd.getFactoryMethodName() != null
+                    || !(bd instanceof AbstractBeanDefinition)) {
+                continue;
+            }
+            Class<?> type = ClassUtils.resolveClassName(bd.getBeanClassName(), beanFactory.getBeanClassLoader());
+            Method aspectOf = ReflectionUtils.findMethod(type, "aspectOf");
+            if (aspectOf != null && Modifier.isStatic(aspectOf.getModifiers())) {
+                ((AbstractBeanDefinition) bd).setFactoryMethodName("aspectOf");
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets like an HdrHistogram with two significant
+ * digits: exact up to 127 ns, then 64 buckets for each power of two, so a
+ * value is never more than 1/64 (about 1.6%) away from its bucket. Values up
+ * to about an hour are tracked, longer ones count as an hour.
+ * <p>
+ * Only one thread records into a histogram, so recording is a read and an
+ * ordered write of a counter, without locks or CAS. Other threads can read
+ * the counters at any time, and add them up to merge several histograms.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    static final long MAX_VALUE = (1L << 42) - 1;
+    static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    // the last slots hold the total of the values and the largest one
+    private static final int SUM = BUCKETS;
+    private static final int MAX = BUCKETS + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 2);
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        int index = index(value);
+        counts.lazySet(index, counts.get(index) + 1);
+        counts.lazySet(SUM, counts.get(SUM) + value);
+        if (value > counts.get(MAX)) {
+            counts.lazySet(MAX, value);
+        }
+    }
+
+    // adds the counts of this histogram to totals, which has BUCKETS + 2 slots
+    void addTo(long[] totals) {
+        for (int i = 0; i < BUCKETS; i++) {
+            totals[i] += counts.get(i);
+        }
+        totals[SUM] += counts.get(SUM);
+        totals[MAX] = Math.max(totals[MAX], counts.get(MAX));
+    }
+
+    static long[] newTotals() {
+        return new long[BUCKETS + 2];
+    }
+
+    static long sum(long[] totals) {
+        return totals[SUM];
+    }
+
+    static long max(long[] totals) {
+        return totals[MAX];
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    // the largest value counted in the bucket
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long mantissa = (index - SUB_BUCKETS) % HALF + HALF;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
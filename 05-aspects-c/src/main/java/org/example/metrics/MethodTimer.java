@@ -0,0 +1,162 @@
+package org.example.metrics;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The latencies of one method. Each thread records into its own
+ * {@link LatencyHistogram}, and reading the timer merges them. The histogram
+ * of a thread that has ended is added to a retired total and dropped, so
+ * threads that come and go don't keep a histogram each.
+ */
+public class MethodTimer implements MethodTimerMXBean {
+
+    private final String method;
+    private final long createdNanos = System.nanoTime();
+    private final Object lock = new Object();
+    // guarded by lock
+    private final List<ThreadHistogram> histograms = new ArrayList<>();
+    private final long[] retired = LatencyHistogram.newTotals();
+    private final ThreadLocal<LatencyHistogram> histogram = ThreadLocal.withInitial(() -> {
+        var histogram = new ThreadHistogram(Thread.currentThread());
+        synchronized (lock) {
+            retireEndedThreads();
+            histograms.add(histogram);
+        }
+        return histogram.histogram;
+    });
+
+    public MethodTimer(String method) {
+        this.method = method;
+    }
+
+    public void record(long nanos) {
+        histogram.get().record(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] totals;
+        synchronized (lock) {
+            retireEndedThreads();
+            totals = retired.clone();
+            for (ThreadHistogram h : histograms) {
+                h.histogram.addTo(totals);
+            }
+        }
+        return new Snapshot(totals, System.nanoTime() - createdNanos);
+    }
+
+    // an ended thread doesn't record anymore, and isAlive() returning false makes its counts visible
+    private void retireEndedThreads() {
+        for (Iterator<ThreadHistogram> it = histograms.iterator(); it.hasNext(); ) {
+            ThreadHistogram h = it.next();
+            Thread owner = h.owner.get();
+            if (owner == null || !owner.isAlive()) {
+                h.histogram.addTo(retired);
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCount() {
+        return snapshot().getCount();
+    }
+
+    @Override
+    public double getThroughput() {
+        return snapshot().getThroughput();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return snapshot().getMean() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return snapshot().getPercentile(0.50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return snapshot().getPercentile(0.99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return snapshot().getPercentile(0.999) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return snapshot().getMax() / 1000.0;
+    }
+
+    // weak, so the timer doesn't keep ended threads from being collected
+    private static final class ThreadHistogram {
+
+        final WeakReference<Thread> owner;
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        ThreadHistogram(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+    }
+
+    /**
+     * The merged histograms at one point in time, in nanoseconds.
+     */
+    public static final class Snapshot {
+
+        private final long[] totals;
+        private final long count;
+        private final long elapsedNanos;
+
+        private Snapshot(long[] totals, long elapsedNanos) {
+            this.totals = totals;
+            this.elapsedNanos = elapsedNanos;
+            long count = 0;
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                count += totals[i];
+            }
+            this.count = count;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getThroughput() {
+            return elapsedNanos > 0 ? count * 1e9 / elapsedNanos : 0;
+        }
+
+        public double getMean() {
+            return count > 0 ? (double) LatencyHistogram.sum(totals) / count : 0;
+        }
+
+        public long getMax() {
+            return LatencyHistogram.max(totals);
+        }
+
+        // the smallest bucket value that at least this fraction of the calls didn't exceed
+        public long getPercentile(double fraction) {
+            long rank = Math.max(1, (long) Math.ceil(fraction * count));
+            long seen = 0;
+            for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                seen += totals[i];
+                if (seen >= rank) {
+                    return Math.min(LatencyHistogram.highestValue(i), getMax());
+                }
+            }
+            return 0;
+        }
+    }
+}
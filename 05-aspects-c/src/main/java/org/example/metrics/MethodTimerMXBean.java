@@ -0,0 +1,24 @@
+package org.example.metrics;
+
+/**
+ * What JMX shows of a {@link MethodTimer}, the latencies in microseconds.
+ */
+public interface MethodTimerMXBean {
+
+    String getMethod();
+
+    long getCount();
+
+    // calls per second since the first call
+    double getThroughput();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,84 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link MethodTimer} of each timed method. Each timer is registered in
+ * the platform MBean server, as {@code org.example.metrics:type=MethodTimer,name="CommentService.publishComment(Comment)"},
+ * so JConsole or any JMX client can read it; {@link #report()} gives the same
+ * numbers as text.
+ */
+public class MethodTimers implements AutoCloseable {
+
+    private static final String DOMAIN = "org.example.metrics";
+
+    private final Map<Method, MethodTimer> timers = new ConcurrentHashMap<>();
+    private final Map<ObjectName, MethodTimer> registered = new ConcurrentHashMap<>();
+
+    public MethodTimer timer(Method method) {
+        MethodTimer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> register(new MethodTimer(name(m))));
+        }
+        return timer;
+    }
+
+    private static String name(Method method) {
+        var name = new StringBuilder(method.getDeclaringClass().getSimpleName()).append('.')
+                .append(method.getName()).append('(');
+        Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            name.append(i > 0 ? "," : "").append(types[i].getSimpleName());
+        }
+        return name.append(')').toString();
+    }
+
+    private MethodTimer register(MethodTimer timer) {
+        try {
+            var objectName = new ObjectName(DOMAIN + ":type=MethodTimer,name=" + ObjectName.quote(timer.getMethod()));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            // another context in the same JVM may have registered it already, the timer still works without JMX
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(timer, objectName);
+                registered.put(objectName, timer);
+            }
+        } catch (JMException e) {
+            // same here
+        }
+        return timer;
+    }
+
+    public String report() {
+        var report = new StringBuilder(String.format("%-40s %10s %10s %10s %10s %10s %10s%n",
+                "method", "count", "calls/s", "p50 us", "p99 us", "p999 us", "max us"));
+        for (MethodTimer timer : (Iterable<MethodTimer>) timers.values().stream()
+                .sorted(Comparator.comparing(MethodTimer::getMethod))::iterator) {
+            MethodTimer.Snapshot snapshot = timer.snapshot();
+            report.append(String.format("%-40s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", timer.getMethod(),
+                    snapshot.getCount(), snapshot.getThroughput(), snapshot.getPercentile(0.50) / 1000.0,
+                    snapshot.getPercentile(0.99) / 1000.0, snapshot.getPercentile(0.999) / 1000.0,
+                    snapshot.getMax() / 1000.0));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public void close() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered.keySet()) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // already gone
+            }
+        }
+        registered.clear();
+    }
+}
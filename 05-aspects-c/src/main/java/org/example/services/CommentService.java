@@ -1,5 +1,7 @@
 package org.example.services;
 
+import org.example.aspects.Memoized;
+import org.example.aspects.Timed;
 import org.example.aspects.ToLog;
 import org.example.model.Comment;
 import org.springframework.stereotype.Service;
@@ -11,16 +13,25 @@ public class CommentService {
 
     private Logger logger = Logger.getLogger(CommentService.class.getName());
 
+    @Timed
     public void publishComment(Comment comment) {
         logger.info("Publishing comment: " + comment.getText());
     }
 
+    @Timed
     @ToLog
     public void deleteComment(Comment comment) {
         logger.info("Deleting comment: " + comment.getText());
     }
 
+    @Timed
     public void editComment(Comment comment) {
         logger.info("Editing comment: " + comment.getText());
     }
+
+    @Memoized(maximumSize = 100, ttlMillis = 60_000)
+    public Comment findComment(String author) {
+        logger.info("Loading comment of: " + author);
+        return new Comment(author, "Hello World");
+    }
 }
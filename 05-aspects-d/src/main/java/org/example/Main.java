@@ -2,6 +2,7 @@ package org.example;
 
 import org.example.config.ProjectConfig;
 import org.example.model.Comment;
+import org.example.profiling.AdviceProfiler;
 import org.example.services.CommentService;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
@@ -15,5 +16,9 @@ public class Main {
 
         var comment = new Comment("John", "Hello World");
         service.publishComment(comment);
+
+        if (Boolean.getBoolean("profile.advice")) {
+            System.out.println(context.getBean(AdviceProfiler.class).report());
+        }
     }
 }
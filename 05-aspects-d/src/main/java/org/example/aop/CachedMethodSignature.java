@@ -0,0 +1,100 @@
+package org.example.aop;
+
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The {@link MethodSignature} of an advised method. It only depends on the
+ * method, so each {@link FusedAroundInterceptor} creates it once and its
+ * join points share it.
+ */
+public final class CachedMethodSignature implements MethodSignature {
+
+    private final Method method;
+    private volatile String[] parameterNames;
+
+    public CachedMethodSignature(Method method) {
+        this.method = method;
+    }
+
+    @Override
+    public String getName() {
+        return method.getName();
+    }
+
+    @Override
+    public int getModifiers() {
+        return method.getModifiers();
+    }
+
+    @Override
+    public Class<?> getDeclaringType() {
+        return method.getDeclaringClass();
+    }
+
+    @Override
+    public String getDeclaringTypeName() {
+        return method.getDeclaringClass().getName();
+    }
+
+    @Override
+    public Class<?> getReturnType() {
+        return method.getReturnType();
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    // new arrays on each call, like the ones of Spring's signature
+    @Override
+    public Class<?>[] getParameterTypes() {
+        return method.getParameterTypes();
+    }
+
+    @Override
+    public String[] getParameterNames() {
+        String[] names = parameterNames;
+        if (names == null) {
+            names = new DefaultParameterNameDiscoverer().getParameterNames(method);
+            parameterNames = names;
+        }
+        return names;
+    }
+
+    @Override
+    public Class<?>[] getExceptionTypes() {
+        return method.getExceptionTypes();
+    }
+
+    @Override
+    public String toShortString() {
+        return ClassUtils.getShortName(method.getDeclaringClass()) + "." + method.getName() + "(..)";
+    }
+
+    @Override
+    public String toLongString() {
+        return Modifier.toString(method.getModifiers()) + " " + method.getReturnType().getName() + " "
+                + method.getDeclaringClass().getName() + "." + method.getName() + "("
+                + types(method.getParameterTypes(), true) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return ClassUtils.getShortName(method.getReturnType()) + " " + method.getDeclaringClass().getName() + "."
+                + method.getName() + "(" + types(method.getParameterTypes(), false) + ")";
+    }
+
+    private static String types(Class<?>[] types, boolean qualified) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            sb.append(i > 0 ? "," : "").append(qualified ? types[i].getName() : ClassUtils.getShortName(types[i]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.aop;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.example.profiling.AdviceTimer;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.AspectInstanceFactory;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * The {@code @Around} advices that follow each other in the chain of one
+ * method, in one interceptor. Spring calls each advice through its own
+ * interceptor, with a new join point and a copy of the invocation, and by
+ * reflection. Here the advice methods are method handles, they all receive
+ * the same {@link FusedJoinPoint}, and proceeding calls the next advice
+ * directly. The pointcuts already known to match the method are not tested
+ * again on each call. With timers, each advice is timed without the time
+ * it spends proceeding.
+ */
+public final class FusedAroundInterceptor implements MethodInterceptor {
+
+    private final Method method;
+    private final Class<?> targetClass;
+    private final CachedMethodSignature signature;
+    private final MethodHandle[] adviceMethods;
+    private final AspectInstanceFactory[] aspects;
+    // null when the pointcut doesn't depend on the call
+    private final MethodMatcher[] runtimeMatchers;
+    // null when the advices aren't profiled
+    private final AdviceTimer[] timers;
+
+    FusedAroundInterceptor(Method method, Class<?> targetClass, List<AspectJAroundAdvice> advices,
+                           List<MethodMatcher> runtimeMatchers, List<AdviceTimer> timers) {
+        this.method = method;
+        this.targetClass = targetClass;
+        this.signature = new CachedMethodSignature(method);
+        this.adviceMethods = new MethodHandle[advices.size()];
+        this.aspects = new AspectInstanceFactory[advices.size()];
+        this.runtimeMatchers = runtimeMatchers.toArray(new MethodMatcher[0]);
+        this.timers = timers != null ? timers.toArray(new AdviceTimer[0]) : null;
+        for (int i = 0; i < advices.size(); i++) {
+            adviceMethods[i] = handle(advices.get(i).getAspectJAdviceMethod());
+            aspects[i] = advices.get(i).getAspectInstanceFactory();
+        }
+    }
+
+    // the advices whose only parameter is the join point
+    public static boolean supports(Method adviceMethod) {
+        return adviceMethod.getParameterCount() == 1 && adviceMethod.getParameterTypes()[0] == ProceedingJoinPoint.class;
+    }
+
+    private static MethodHandle handle(Method adviceMethod) {
+        try {
+            ReflectionUtils.makeAccessible(adviceMethod);
+            return MethodHandles.lookup().unreflect(adviceMethod)
+                    .asType(MethodType.methodType(Object.class, Object.class, ProceedingJoinPoint.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    CachedMethodSignature getSignature() {
+        return signature;
+    }
+
+    int getAdviceCount() {
+        return adviceMethods.length;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        if (!(mi instanceof ProxyMethodInvocation)) {
+            throw new IllegalStateException("MethodInvocation is not a Spring ProxyMethodInvocation: " + mi);
+        }
+        return new FusedJoinPoint((ProxyMethodInvocation) mi, this).proceed();
+    }
+
+    // calls the first advice from the given one that applies, or continues the invocation after the last one
+    Object invokeFrom(int first, FusedJoinPoint joinPoint) throws Throwable {
+        for (int i = first; i < adviceMethods.length; i++) {
+            MethodMatcher matcher = runtimeMatchers[i];
+            if (matcher == null || matcher.matches(method, targetClass, joinPoint.argumentsOf(i))) {
+                joinPoint.enter(i);
+                if (timers != null) {
+                    return invokeTimed(i, joinPoint);
+                }
+                return adviceMethods[i].invokeExact(aspects[i].getAspectInstance(), (ProceedingJoinPoint) joinPoint);
+            }
+        }
+        return joinPoint.proceedInvocation();
+    }
+
+    private Object invokeTimed(int i, FusedJoinPoint joinPoint) throws Throwable {
+        long outer = AdviceTimer.enter();
+        long start = System.nanoTime();
+        try {
+            return adviceMethods[i].invokeExact(aspects[i].getAspectInstance(), (ProceedingJoinPoint) joinPoint);
+        } finally {
+            timers[i].exit(start, outer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FusedAroundInterceptor for " + method + " (" + adviceMethods.length + " advices)";
+    }
+}
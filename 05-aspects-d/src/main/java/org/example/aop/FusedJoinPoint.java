@@ -0,0 +1,203 @@
+package org.example.aop;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * The join point all the advices of a {@link FusedAroundInterceptor} receive
+ * during one call. It knows which advice is running, so {@link #proceed()}
+ * calls the next advice, or continues the invocation of the proxy after the
+ * last one. An advice can proceed more than once, and the arguments it
+ * proceeds with are only seen by the advices it calls, like with Spring's
+ * join points: the invocation itself is continued the first time with its
+ * own arguments, a clone of it otherwise.
+ */
+public final class FusedJoinPoint implements ProceedingJoinPoint, JoinPoint.StaticPart {
+
+    // where the invocation is in its chain, which a clone taken after proceeding has lost
+    private static final VarHandle INTERCEPTOR_INDEX;
+
+    static {
+        try {
+            INTERCEPTOR_INDEX = MethodHandles.privateLookupIn(ReflectiveMethodInvocation.class, MethodHandles.lookup())
+                    .findVarHandle(ReflectiveMethodInvocation.class, "currentInterceptorIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ProxyMethodInvocation invocation;
+    private final FusedAroundInterceptor interceptor;
+    // the advice that is running, -1 before the first one
+    private int position = -1;
+    // the arguments each advice proceeded with, null until one passes some
+    private Object[][] arguments;
+    private boolean invoked;
+    private int interceptorIndex;
+
+    FusedJoinPoint(ProxyMethodInvocation invocation, FusedAroundInterceptor interceptor) {
+        this.invocation = invocation;
+        this.interceptor = interceptor;
+    }
+
+    void enter(int position) {
+        this.position = position;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        int current = position;
+        try {
+            return interceptor.invokeFrom(current + 1, this);
+        } finally {
+            position = current;
+            if (arguments != null) {
+                // the next time, the advices after this one start from its arguments again
+                Arrays.fill(arguments, current + 1, arguments.length, null);
+            }
+        }
+    }
+
+    @Override
+    public Object proceed(Object[] args) throws Throwable {
+        if (args.length != invocation.getArguments().length) {
+            throw new IllegalArgumentException("Expecting " + invocation.getArguments().length +
+                    " arguments to proceed, but was passed " + args.length + " arguments");
+        }
+        if (arguments == null) {
+            arguments = new Object[interceptor.getAdviceCount()][];
+        }
+        arguments[position] = args;
+        return proceed();
+    }
+
+    // the arguments the advice at the position is called with
+    Object[] argumentsOf(int position) {
+        if (arguments != null) {
+            for (int i = position - 1; i >= 0; i--) {
+                if (arguments[i] != null) {
+                    return arguments[i];
+                }
+            }
+        }
+        return invocation.getArguments();
+    }
+
+    // after the last advice: the invocation the first time, then a clone at the same place in the chain
+    Object proceedInvocation() throws Throwable {
+        Object[] args = argumentsOf(interceptor.getAdviceCount());
+        boolean reflective = invocation instanceof ReflectiveMethodInvocation;
+        if (!invoked) {
+            invoked = true;
+            if (reflective) {
+                interceptorIndex = (int) INTERCEPTOR_INDEX.get((ReflectiveMethodInvocation) invocation);
+            }
+            if (args == invocation.getArguments()) {
+                return invocation.proceed();
+            }
+        }
+        var clone = args == invocation.getArguments() ? invocation.invocableClone() : invocation.invocableClone(args);
+        if (reflective) {
+            INTERCEPTOR_INDEX.set(clone, interceptorIndex);
+        }
+        return clone.proceed();
+    }
+
+    // only code woven by ajc proceeds through a closure, this join point proceeds through the advices
+    @Override
+    public void set$AroundClosure(AroundClosure aroundClosure) {
+    }
+
+    @Override
+    public Object getThis() {
+        return invocation.getProxy();
+    }
+
+    @Override
+    public Object getTarget() {
+        return invocation.getThis();
+    }
+
+    // the arguments of the running advice, not a copy, don't change them
+    @Override
+    public Object[] getArgs() {
+        return argumentsOf(position);
+    }
+
+    @Override
+    public Signature getSignature() {
+        return interceptor.getSignature();
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+        return new TargetLocation();
+    }
+
+    @Override
+    public String getKind() {
+        return METHOD_EXECUTION;
+    }
+
+    @Override
+    public int getId() {
+        return 0;
+    }
+
+    @Override
+    public StaticPart getStaticPart() {
+        return this;
+    }
+
+    @Override
+    public String toShortString() {
+        return "execution(" + getSignature().toShortString() + ")";
+    }
+
+    @Override
+    public String toLongString() {
+        return "execution(" + getSignature().toLongString() + ")";
+    }
+
+    @Override
+    public String toString() {
+        return "execution(" + getSignature() + ")";
+    }
+
+    // like the one of Spring's join point: a proxy only knows the class of the target, not the file or the line
+    private final class TargetLocation implements SourceLocation {
+
+        @Override
+        public Class<?> getWithinType() {
+            if (invocation.getThis() == null) {
+                throw new UnsupportedOperationException("No source location joinpoint available: target is null");
+            }
+            return invocation.getThis().getClass();
+        }
+
+        @Override
+        public String getFileName() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getLine() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @Deprecated
+        public int getColumn() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.aop;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.weaver.tools.PointcutExpression;
+import org.example.profiling.AdviceProfiler;
+import org.example.profiling.AdviceTimer;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.aop.support.AopUtils;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the chain of a method like Spring does, then replaces each run of
+ * {@code @Around} advices (in the order of the chain, so {@code @Order} still
+ * applies) with a {@link FusedAroundInterceptor}. The proxy asks for the
+ * chain of a method once and caches it. Chains with introductions are left
+ * as they are.
+ * <p>
+ * With an {@link AdviceProfiler}, each advice of the chain is timed, and so
+ * are the dispatch between them and the target method.
+ * Spring's {@code ExposeInvocationInterceptor} is counted as dispatch.
+ */
+public class FusingAdvisorChainFactory implements AdvisorChainFactory, Serializable {
+
+    private final AdvisorChainFactory delegate = new DefaultAdvisorChainFactory();
+    // null when the chains aren't profiled
+    private final transient AdviceProfiler profiler;
+
+    public FusingAdvisorChainFactory() {
+        this(null);
+    }
+
+    public FusingAdvisorChainFactory(AdviceProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Advised config, Method method,
+                                                                    Class<?> targetClass) {
+        Advisor[] advisors = config.getAdvisors();
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof IntroductionAdvisor) {
+                return delegate.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+            }
+        }
+        Class<?> actualClass = targetClass != null ? targetClass : method.getDeclaringClass();
+        String profiled = profiler != null ? profiledName(method, actualClass) : null;
+        // created first, so the report lists the timers in the order of the chain
+        AdviceTimer dispatch = profiled != null ? profiler.timer(profiled, AdviceProfiler.DISPATCH) : null;
+        List<Object> chain = new ArrayList<>(advisors.length);
+        List<AspectJAroundAdvice> run = new ArrayList<>();
+        List<MethodMatcher> runtimeMatchers = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            // what Spring adds to the chain for this advisor alone, nothing when it doesn't match
+            List<Object> interceptors = delegate.getInterceptorsAndDynamicInterceptionAdvice(
+                    single(config, advisor), method, targetClass);
+            if (interceptors.isEmpty()) {
+                continue;
+            }
+            AspectJAroundAdvice advice = fusable(advisor);
+            if (advice == null) {
+                fuse(run, runtimeMatchers, method, actualClass, profiled, chain);
+            }
+            if (advice == null) {
+                for (Object interceptor : interceptors) {
+                    // the ones tested on each call are left out of the profile, their time is dispatch
+                    chain.add(profiled != null && interceptor instanceof MethodInterceptor
+                            && advisor != ExposeInvocationInterceptor.ADVISOR
+                            ? new ProfilingInterceptor((MethodInterceptor) interceptor,
+                            profiler.timer(profiled, adviceName(advisor)))
+                            : interceptor);
+                }
+                continue;
+            }
+            Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+            // Spring wraps the advice when the pointcut must be tested on each call
+            boolean runtime = !(interceptors.get(0) instanceof MethodInterceptor)
+                    && !alwaysMatches(pointcut, method, actualClass);
+            run.add(advice);
+            runtimeMatchers.add(runtime ? pointcut.getMethodMatcher() : null);
+        }
+        fuse(run, runtimeMatchers, method, actualClass, profiled, chain);
+        if (profiled != null && !chain.isEmpty()) {
+            chain.add(0, new ProfilingInterceptor(null, dispatch));
+            chain.add(new ProfilingInterceptor(null, profiler.timer(profiled, AdviceProfiler.TARGET)));
+        }
+        return chain;
+    }
+
+    private static Advised single(Advised config, Advisor advisor) {
+        var single = new AdvisedSupport();
+        single.setPreFiltered(config.isPreFiltered());
+        single.addAdvisor(advisor);
+        return single;
+    }
+
+    private static AspectJAroundAdvice fusable(Advisor advisor) {
+        if (!(advisor instanceof PointcutAdvisor) || !(advisor.getAdvice() instanceof AspectJAroundAdvice)) {
+            return null;
+        }
+        var advice = (AspectJAroundAdvice) advisor.getAdvice();
+        return FusedAroundInterceptor.supports(advice.getAspectJAdviceMethod()) ? advice : null;
+    }
+
+    private void fuse(List<AspectJAroundAdvice> run, List<MethodMatcher> runtimeMatchers, Method method,
+                      Class<?> targetClass, String profiled, List<Object> chain) {
+        if (run.isEmpty()) {
+            return;
+        }
+        List<AdviceTimer> timers = null;
+        if (profiled != null) {
+            timers = new ArrayList<>(run.size());
+            for (AspectJAroundAdvice advice : run) {
+                timers.add(profiler.timer(profiled, adviceName(advice.getAspectJAdviceMethod())));
+            }
+        }
+        chain.add(new FusedAroundInterceptor(method, targetClass, run, runtimeMatchers, timers));
+        run.clear();
+        runtimeMatchers.clear();
+    }
+
+    // e.g. CommentService.publishComment(Comment)
+    private static String profiledName(Method method, Class<?> targetClass) {
+        var description = new StringBuilder(targetClass.getSimpleName()).append('.').append(method.getName())
+                .append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            description.append(i > 0 ? ", " : "").append(parameterTypes[i].getSimpleName());
+        }
+        return description.append(')').toString();
+    }
+
+    // e.g. LoggingAspect.log
+    private static String adviceName(Method adviceMethod) {
+        return adviceMethod.getDeclaringClass().getSimpleName() + "." + adviceMethod.getName();
+    }
+
+    private static String adviceName(Advisor advisor) {
+        if (advisor.getAdvice() instanceof AbstractAspectJAdvice) {
+            return adviceName(((AbstractAspectJAdvice) advisor.getAdvice()).getAspectJAdviceMethod());
+        }
+        return advisor.getAdvice().getClass().getSimpleName();
+    }
+
+    // e.g. @annotation(ToLog) on a method with @ToLog: Spring still tests it on each call
+    private static boolean alwaysMatches(Pointcut pointcut, Method method, Class<?> targetClass) {
+        if (!(pointcut instanceof AspectJExpressionPointcut)) {
+            return false;
+        }
+        try {
+            PointcutExpression expression = ((AspectJExpressionPointcut) pointcut).getPointcutExpression();
+            Method targetMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            return expression.matchesMethodExecution(targetMethod).alwaysMatches()
+                    && expression.matchesMethodExecution(method).alwaysMatches();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
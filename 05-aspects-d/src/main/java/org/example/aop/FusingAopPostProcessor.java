@@ -0,0 +1,35 @@
+package org.example.aop;
+
+import org.example.profiling.AdviceProfiler;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Like {@link IndexingAopPostProcessor}, and the proxies use a
+ * {@link FusingAdvisorChainFactory}, so the {@code @Around} advices of a
+ * method run in a single interceptor. Declare it with a {@code static}
+ * {@code @Bean} method. Given an {@link AdviceProfiler}, the chains record
+ * the time of each advice in it.
+ */
+public class FusingAopPostProcessor extends IndexingAopPostProcessor {
+
+    private AdviceProfiler profiler;
+
+    public void setProfiler(AdviceProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        super.postProcessBeanFactory(beanFactory);
+        if (!beanFactory.containsBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)) {
+            return;
+        }
+        BeanDefinition bd = beanFactory.getBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME);
+        if (IndexingAutoProxyCreator.class.getName().equals(bd.getBeanClassName())) {
+            bd.getPropertyValues().add("advisorChainFactory", new FusingAdvisorChainFactory(profiler));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.aop;
+
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Makes the proxy creator registered by {@code @EnableAspectJAutoProxy} an
+ * {@link IndexingAutoProxyCreator}, keeping the settings of the annotation.
+ * Declare it with a {@code static} {@code @Bean} method.
+ */
+public class IndexingAopPostProcessor implements BeanFactoryPostProcessor {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        if (!beanFactory.containsBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)) {
+            return;
+        }
+        BeanDefinition bd = beanFactory.getBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME);
+        if (AnnotationAwareAspectJAutoProxyCreator.class.getName().equals(bd.getBeanClassName())) {
+            bd.setBeanClassName(IndexingAutoProxyCreator.class.getName());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.aop;
+
+import org.aspectj.weaver.Shadow;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.ExactTypePattern;
+import org.aspectj.weaver.patterns.KindedPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
+import org.aspectj.weaver.patterns.SignaturePattern;
+import org.aspectj.weaver.tools.PointcutExpression;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxy creator that looks at far fewer pointcuts when there are many beans.
+ * Spring asks every advisor about every bean: AspectJ checks the class, then
+ * builds a match for each method of it, and most classes have nothing to do
+ * with most aspects. Here each pointcut is read once for what it requires,
+ * looking at the parts of its expression joined with {@code &&}:
+ * <ul>
+ *     <li>{@code @annotation(ToLog)}: a method annotated with {@code @ToLog};</li>
+ *     <li>{@code execution(* CommentService.publishComment(..))}: a class that is a
+ *     {@code CommentService}, with a method named {@code publishComment}.</li>
+ * </ul>
+ * The advisors are indexed by the annotation or the type they require, and
+ * a bean class is only matched by AspectJ against the advisors indexed under
+ * the annotations of its methods and its types, and those requiring nothing
+ * this can read. The advisors that apply are then remembered per class.
+ * <p>
+ * The proxies it creates can also be given another {@link AdvisorChainFactory}.
+ */
+public class IndexingAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator {
+
+    private final Map<Class<?>, ClassShape> shapes = new ConcurrentHashMap<>();
+    private volatile AdvisorIndex index;
+    private AdvisorChainFactory advisorChainFactory;
+
+    public void setAdvisorChainFactory(AdvisorChainFactory advisorChainFactory) {
+        this.advisorChainFactory = advisorChainFactory;
+    }
+
+    @Override
+    protected void customizeProxyFactory(ProxyFactory proxyFactory) {
+        if (advisorChainFactory != null) {
+            proxyFactory.setAdvisorChainFactory(advisorChainFactory);
+        }
+    }
+
+    @Override
+    protected List<Advisor> findAdvisorsThatCanApply(List<Advisor> candidateAdvisors, Class<?> beanClass,
+                                                     String beanName) {
+        AdvisorIndex current = index;
+        // the candidates change while the advisor beans are created, the index is built again when they do
+        if (current == null || !current.isFor(candidateAdvisors)) {
+            current = new AdvisorIndex(candidateAdvisors);
+            index = current;
+        }
+        List<Advisor> eligible = current.eligible.get(beanClass);
+        if (eligible == null) {
+            List<Requirements> survivors = current.survivors(shape(beanClass));
+            List<Advisor> advisors = new ArrayList<>(survivors.size());
+            boolean byName = false;
+            for (Requirements requirements : survivors) {
+                advisors.add(requirements.advisor);
+                byName |= requirements.byBeanName;
+            }
+            eligible = advisors.isEmpty() ? advisors : super.findAdvisorsThatCanApply(advisors, beanClass, beanName);
+            // bean(..) pointcuts depend on the name, not only on the class
+            if (byName) {
+                return eligible;
+            }
+            current.eligible.put(beanClass, eligible);
+        }
+        // the caller adds to the list
+        return new ArrayList<>(eligible);
+    }
+
+    private ClassShape shape(Class<?> beanClass) {
+        ClassShape shape = shapes.get(beanClass);
+        if (shape == null) {
+            shape = shapes.computeIfAbsent(beanClass, ClassShape::new);
+        }
+        return shape;
+    }
+
+    private static final class AdvisorIndex {
+
+        private final List<Advisor> advisors;
+        private final List<Requirements> unconstrained = new ArrayList<>();
+        private final Map<String, List<Requirements>> byAnnotation = new HashMap<>();
+        private final Map<String, List<Requirements>> byType = new HashMap<>();
+        private final Map<Class<?>, List<Advisor>> eligible = new ConcurrentHashMap<>();
+
+        private AdvisorIndex(List<Advisor> advisors) {
+            this.advisors = new ArrayList<>(advisors);
+            for (int i = 0; i < advisors.size(); i++) {
+                var requirements = new Requirements(advisors.get(i), i);
+                // one key per advisor is enough, the other requirements are checked afterwards
+                if (!requirements.annotations.isEmpty()) {
+                    byAnnotation.computeIfAbsent(requirements.annotations.iterator().next(), k -> new ArrayList<>())
+                            .add(requirements);
+                } else if (requirements.type != null) {
+                    byType.computeIfAbsent(requirements.type, k -> new ArrayList<>()).add(requirements);
+                } else {
+                    unconstrained.add(requirements);
+                }
+            }
+        }
+
+        private boolean isFor(List<Advisor> candidates) {
+            if (candidates.size() != advisors.size()) {
+                return false;
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                if (candidates.get(i) != advisors.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // the advisors that may apply to the class, in the order of the candidates
+        private List<Requirements> survivors(ClassShape shape) {
+            List<Requirements> survivors = new ArrayList<>(unconstrained);
+            for (String annotation : shape.methodAnnotations) {
+                add(byAnnotation.get(annotation), shape, survivors);
+            }
+            for (String type : shape.types) {
+                add(byType.get(type), shape, survivors);
+            }
+            survivors.sort((a, b) -> Integer.compare(a.position, b.position));
+            return survivors;
+        }
+
+        private static void add(List<Requirements> indexed, ClassShape shape, List<Requirements> survivors) {
+            if (indexed == null) {
+                return;
+            }
+            for (Requirements requirements : indexed) {
+                if (requirements.couldMatch(shape)) {
+                    survivors.add(requirements);
+                }
+            }
+        }
+    }
+
+    // what the expression of an advisor requires from a class, nothing when it can't be read
+    private static final class Requirements {
+
+        private final Advisor advisor;
+        private final int position;
+        private final Set<String> annotations = new HashSet<>();
+        private String type;
+        private String methodName;
+        private boolean byBeanName;
+
+        private Requirements(Advisor advisor, int position) {
+            this.advisor = advisor;
+            this.position = position;
+            if (advisor instanceof PointcutAdvisor
+                    && ((PointcutAdvisor) advisor).getPointcut() instanceof AspectJExpressionPointcut) {
+                read((AspectJExpressionPointcut) ((PointcutAdvisor) advisor).getPointcut());
+            }
+        }
+
+        private void read(AspectJExpressionPointcut pointcut) {
+            PointcutExpression expression;
+            try {
+                expression = pointcut.getPointcutExpression();
+            } catch (RuntimeException e) {
+                // let Spring report it
+                return;
+            }
+            byBeanName = pointcut.getExpression() != null && pointcut.getExpression().contains("bean(");
+            if (expression instanceof PointcutExpressionImpl) {
+                read(((PointcutExpressionImpl) expression).getUnderlyingPointcut());
+            }
+        }
+
+        private void read(Pointcut pointcut) {
+            if (pointcut instanceof AndPointcut) {
+                read(((AndPointcut) pointcut).getLeft());
+                read(((AndPointcut) pointcut).getRight());
+            } else if (pointcut instanceof AnnotationPointcut) {
+                annotations.add(((AnnotationPointcut) pointcut).getAnnotationTypePattern().getAnnotationType().getName());
+            } else if (pointcut instanceof KindedPointcut
+                    && ((KindedPointcut) pointcut).getKind() == Shadow.MethodExecution) {
+                SignaturePattern signature = ((KindedPointcut) pointcut).getSignature();
+                if (signature.getDeclaringType() instanceof ExactTypePattern) {
+                    type = ((ExactTypePattern) signature.getDeclaringType()).getType().getRawName();
+                }
+                methodName = signature.getName().maybeGetSimpleName();
+            }
+        }
+
+        private boolean couldMatch(ClassShape shape) {
+            return (type == null || shape.types.contains(type))
+                    && (methodName == null || shape.methodNames.contains(methodName))
+                    && shape.methodAnnotations.containsAll(annotations);
+        }
+    }
+
+    // the names AspectJ could match in a class: its types, and the names and annotations of their methods
+    private static final class ClassShape {
+
+        private final Set<String> types = new HashSet<>();
+        private final Set<String> methodNames = new HashSet<>();
+        private final Set<String> methodAnnotations = new HashSet<>();
+
+        private ClassShape(Class<?> beanClass) {
+            for (Class<?> c = beanClass; c != null; c = c.getSuperclass()) {
+                add(c);
+            }
+        }
+
+        private void add(Class<?> type) {
+            if (!types.add(type.getName())) {
+                return;
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                methodNames.add(method.getName());
+                for (Annotation annotation : method.getDeclaredAnnotations()) {
+                    methodAnnotations.add(annotation.annotationType().getName());
+                }
+            }
+            for (Class<?> itf : type.getInterfaces()) {
+                add(itf);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.aop;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.example.profiling.AdviceTimer;
+
+/**
+ * Times an interceptor of the chain, or with no interceptor, the rest of the
+ * chain: first in the chain, its self time is the dispatch between the
+ * interceptors, last, it is the time of the target method.
+ */
+final class ProfilingInterceptor implements MethodInterceptor {
+
+    private final MethodInterceptor delegate;
+    private final AdviceTimer timer;
+
+    ProfilingInterceptor(MethodInterceptor delegate, AdviceTimer timer) {
+        this.delegate = delegate;
+        this.timer = timer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        long outer = AdviceTimer.enter();
+        long start = System.nanoTime();
+        try {
+            return delegate != null ? delegate.invoke(mi) : mi.proceed();
+        } finally {
+            timer.exit(start, outer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProfilingInterceptor " + timer.getName() + (delegate != null ? " of " + delegate : "");
+    }
+}
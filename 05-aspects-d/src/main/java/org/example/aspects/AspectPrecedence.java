@@ -0,0 +1,10 @@
+package org.example.aspects;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.DeclarePrecedence;
+
+// ajc ignores @Order, this gives the woven aspects the same order (Spring AOP doesn't support it, so it isn't a bean)
+@Aspect
+@DeclarePrecedence("org.example.aspects.SecurityAspect, org.example.aspects.LoggingAspect")
+public class AspectPrecedence {
+}
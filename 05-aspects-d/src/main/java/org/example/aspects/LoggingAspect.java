@@ -3,23 +3,30 @@ package org.example.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.example.sampling.Sampler;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.util.logging.Logger;
-
 @Component
 @Aspect
 @Order(2)
 public class LoggingAspect {
 
-    private final Logger logger = Logger.getLogger(LoggingAspect.class.getName());
+    private final Tracer tracer = new Tracer(LoggingAspect.class, "Logging");
+
+    // -Dsampling.LoggingAspect=rate:0.01 traces 1% of the calls, see Sampler
+    private volatile Sampler sampler = Sampler.forAspect(LoggingAspect.class);
+
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public void setSampler(Sampler sampler) {
+        this.sampler = sampler;
+    }
 
-    @Around("@annotation(ToLog)")
-    public void log(ProceedingJoinPoint joinPoint) throws Throwable {
-        String methodName = joinPoint.getSignature().getName();
-        logger.info("Logging Aspect calling " + methodName + " method");
-        joinPoint.proceed();
-        logger.info("Logging Aspect executed " + methodName + " method");
+    @Around("execution(* *(..)) && @annotation(org.example.aspects.ToLog)")
+    public Object log(ProceedingJoinPoint joinPoint) throws Throwable {
+        return tracer.trace(joinPoint, sampler);
     }
 }
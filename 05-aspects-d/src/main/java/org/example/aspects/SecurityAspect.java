@@ -3,23 +3,30 @@ package org.example.aspects;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.example.sampling.Sampler;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-import java.util.logging.Logger;
-
 @Component
 @Aspect
 @Order(1)
 public class SecurityAspect {
 
-    private final Logger logger = Logger.getLogger(SecurityAspect.class.getName());
+    private final Tracer tracer = new Tracer(SecurityAspect.class, "Security");
+
+    // -Dsampling.SecurityAspect=rate:0.01 traces 1% of the calls, see Sampler
+    private volatile Sampler sampler = Sampler.forAspect(SecurityAspect.class);
+
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public void setSampler(Sampler sampler) {
+        this.sampler = sampler;
+    }
 
-    @Around("@annotation(ToLog)")
-    public void secure(ProceedingJoinPoint joinPoint) throws Throwable {
-        String methodName = joinPoint.getSignature().getName();
-        logger.info("Security Aspect calling " + methodName + " method");
-        joinPoint.proceed();
-        logger.info("Security Aspect executed " + methodName + " method");
+    @Around("execution(* *(..)) && @annotation(org.example.aspects.ToLog)")
+    public Object secure(ProceedingJoinPoint joinPoint) throws Throwable {
+        return tracer.trace(joinPoint, sampler);
     }
 }
@@ -0,0 +1,46 @@
+package org.example.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.example.logging.AsyncLogger;
+import org.example.sampling.Sampler;
+
+/**
+ * What {@link LoggingAspect} and {@link SecurityAspect} do around a call: ask
+ * their {@link Sampler}, then log the call, or only how long it took when the
+ * sampler decides afterwards. The messages, with the name of the aspect in
+ * them, are built once.
+ */
+final class Tracer {
+
+    private final AsyncLogger logger;
+    private final String calling;
+    private final String executed;
+    private final String executedIn;
+
+    Tracer(Class<?> aspect, String name) {
+        this.logger = AsyncLogger.getLogger(aspect.getName());
+        this.calling = name + " Aspect calling {} method";
+        this.executed = name + " Aspect executed {} method";
+        this.executedIn = name + " Aspect executed {} method in {} microseconds";
+    }
+
+    Object trace(ProceedingJoinPoint joinPoint, Sampler sampler) throws Throwable {
+        if (!sampler.sample()) {
+            return joinPoint.proceed();
+        }
+        if (sampler.isTail()) {
+            long start = System.nanoTime();
+            Object result = joinPoint.proceed();
+            long nanos = System.nanoTime() - start;
+            if (sampler.sample(nanos)) {
+                logger.info(executedIn, joinPoint.getSignature().getName(), nanos / 1000);
+            }
+            return result;
+        }
+        String methodName = joinPoint.getSignature().getName();
+        logger.info(calling, methodName);
+        Object result = joinPoint.proceed();
+        logger.info(executed, methodName);
+        return result;
+    }
+}
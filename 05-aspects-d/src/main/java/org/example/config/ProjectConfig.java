@@ -1,5 +1,8 @@
 package org.example.config;
 
+import org.example.aop.FusingAopPostProcessor;
+import org.example.profiling.AdviceProfiler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -8,4 +11,24 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 @ComponentScan(basePackages = {"org.example.services", "org.example.aspects"})
 @EnableAspectJAutoProxy
 public class ProjectConfig {
+
+    @Bean
+    public static WovenAspectsPostProcessor wovenAspectsPostProcessor() {
+        return new WovenAspectsPostProcessor();
+    }
+
+    @Bean
+    public static AdviceProfiler adviceProfiler() {
+        return new AdviceProfiler();
+    }
+
+    @Bean
+    public static FusingAopPostProcessor fusingAopPostProcessor(AdviceProfiler adviceProfiler) {
+        var postProcessor = new FusingAopPostProcessor();
+        // -Dprofile.advice=true times each advice of the proxies
+        if (Boolean.getBoolean("profile.advice")) {
+            postProcessor.setProfiler(adviceProfiler);
+        }
+        return postProcessor;
+    }
 }
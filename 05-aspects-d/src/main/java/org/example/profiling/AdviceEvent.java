@@ -0,0 +1,46 @@
+package org.example.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One timed call, recorded by JFR when it's running
+ * ({@code -XX:StartFlightRecording:filename=advice.jfr}), then
+ * {@code jfr print --events org.example.Advice advice.jfr}. When it isn't
+ * recording, the event is never created.
+ */
+@Name("org.example.Advice")
+@Label("Advice")
+@Category({"Spring", "AOP"})
+@Description("Time spent in an advice, without the advices and the method it proceeds to")
+@StackTrace(false)
+class AdviceEvent extends Event {
+
+    private static final AdviceEvent PROBE = new AdviceEvent();
+
+    @Label("Method")
+    String method;
+
+    @Label("Advice")
+    String advice;
+
+    @Label("Self Time")
+    @Timespan
+    long selfTime;
+
+    static void emit(String method, String advice, long selfNanos) {
+        if (!PROBE.isEnabled()) {
+            return;
+        }
+        var event = new AdviceEvent();
+        event.method = method;
+        event.advice = advice;
+        event.selfTime = selfNanos;
+        event.commit();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The {@link AdviceTimer}s of the proxied methods. For each method, in the
+ * order of its chain: the dispatch (the time between the interceptors of the
+ * chain, not in any of them), the advices and the target method.
+ * <p>
+ * The timers add two {@code System.nanoTime()} calls to each advice, which
+ * are mostly counted as dispatch.
+ */
+public class AdviceProfiler {
+
+    public static final String DISPATCH = "dispatch";
+    public static final String TARGET = "target";
+
+    private final Map<String, Map<String, AdviceTimer>> methods = new ConcurrentSkipListMap<>();
+
+    // called when the chain of a method is built, the same method and name give the same timer
+    public AdviceTimer timer(String method, String name) {
+        Map<String, AdviceTimer> timers = methods.computeIfAbsent(method,
+                m -> Collections.synchronizedMap(new LinkedHashMap<>()));
+        return timers.computeIfAbsent(name, n -> new AdviceTimer(method, n));
+    }
+
+    public List<AdviceTimer> getTimers(String method) {
+        Map<String, AdviceTimer> timers = methods.get(method);
+        if (timers == null) {
+            return List.of();
+        }
+        synchronized (timers) {
+            return new ArrayList<>(timers.values());
+        }
+    }
+
+    public void reset() {
+        for (String method : methods.keySet()) {
+            getTimers(method).forEach(AdviceTimer::reset);
+        }
+    }
+
+    // for each method called, the mean self time per call and its share of the call
+    public String report() {
+        var report = new StringBuilder();
+        for (String method : methods.keySet()) {
+            List<AdviceTimer> timers = getTimers(method);
+            long calls = timers.get(0).getCalls();
+            if (calls == 0) {
+                continue;
+            }
+            long total = 0;
+            for (AdviceTimer timer : timers) {
+                total += timer.getSelfNanos();
+            }
+            report.append(String.format("%s: %d calls, %d ns per call%n", method, calls,
+                    total / calls));
+            for (AdviceTimer timer : timers) {
+                report.append(String.format("  %-40s %10d ns %6.1f%%%n", timer.getName(),
+                        timer.getSelfNanos() / calls,
+                        total == 0 ? 0 : 100.0 * timer.getSelfNanos() / total));
+            }
+        }
+        return report.length() > 0 ? report.toString() : "No advice profiled";
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.profiling;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The calls and the self time of one advice (or of the dispatch between the
+ * advices, or of the target method) on one method. The self time of a call is
+ * its time minus the time of the timed calls nested in it, which each thread
+ * adds up in {@link #NESTED}: an advice that proceeds isn't charged for the
+ * advices and the method after it.
+ */
+public final class AdviceTimer {
+
+    // the time of the timed calls that returned inside the current one
+    private static final ThreadLocal<long[]> NESTED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final String method;
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder selfNanos = new LongAdder();
+
+    AdviceTimer(String method, String name) {
+        this.method = method;
+        this.name = name;
+    }
+
+    // call it before the timed call, and pass what it returns to exit
+    public static long enter() {
+        long[] nested = NESTED.get();
+        long outer = nested[0];
+        nested[0] = 0;
+        return outer;
+    }
+
+    public void exit(long start, long outer) {
+        long total = System.nanoTime() - start;
+        long[] nested = NESTED.get();
+        long self = total - nested[0];
+        // for the enclosing call, this one is nested
+        nested[0] = outer + total;
+        calls.increment();
+        selfNanos.add(self);
+        AdviceEvent.emit(method, name, self);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getSelfNanos() {
+        return selfNanos.sum();
+    }
+
+    void reset() {
+        calls.reset();
+        selfNanos.reset();
+    }
+}
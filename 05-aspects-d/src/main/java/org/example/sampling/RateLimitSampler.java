@@ -0,0 +1,42 @@
+package org.example.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traces the first calls of each second, up to a limit. Once the limit is
+ * reached, the calls only read the counter until the next second, so the
+ * threads don't fight over it. A thread can count a call in the second that
+ * just ended, the limit is approximate.
+ */
+final class RateLimitSampler implements Sampler {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int limit;
+    private final AtomicLong second = new AtomicLong(System.nanoTime() / SECOND);
+    private final AtomicInteger count = new AtomicInteger();
+
+    RateLimitSampler(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean sample() {
+        long now = System.nanoTime() / SECOND;
+        long current = second.get();
+        if (now != current && second.compareAndSet(current, now)) {
+            count.set(0);
+        }
+        return count.get() < limit && count.getAndIncrement() < limit;
+    }
+
+    @Override
+    public String toString() {
+        return "limit:" + limit;
+    }
+}
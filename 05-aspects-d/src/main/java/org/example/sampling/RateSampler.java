@@ -0,0 +1,33 @@
+package org.example.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Traces each call with the same probability. The random number comes from
+ * the {@link ThreadLocalRandom} of the calling thread, so the threads don't
+ * share anything.
+ */
+final class RateSampler implements Sampler {
+
+    private final double rate;
+    // a call is traced when a random int between 0 and 2^31 - 1 is below it
+    private final long threshold;
+
+    RateSampler(double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("rate must be between 0 and 1: " + rate);
+        }
+        this.rate = rate;
+        this.threshold = (long) (rate * (1L << 31));
+    }
+
+    @Override
+    public boolean sample() {
+        return (ThreadLocalRandom.current().nextInt() >>> 1) < threshold;
+    }
+
+    @Override
+    public String toString() {
+        return "rate:" + rate;
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.sampling;
+
+import java.time.Duration;
+
+/**
+ * Decides which calls an aspect traces. Most samplers decide before the call,
+ * so the calls they skip cost one check and nothing else. A tail sampler
+ * can only decide once the call has returned, from how long it took.
+ * <p>
+ * {@link #forAspect(Class)} reads the sampler of an aspect from
+ * {@code -Dsampling.LoggingAspect=...}, or from {@code -Dsampling=...} for
+ * all of them: {@code always}, {@code never}, {@code rate:0.01} (1% of the
+ * calls), {@code limit:100} (at most about 100 calls per second) or
+ * {@code tail:10} (only the calls slower than 10 ms).
+ */
+public interface Sampler {
+
+    Sampler ALWAYS = () -> true;
+    Sampler NEVER = () -> false;
+
+    // before the call, false means it isn't traced at all
+    boolean sample();
+
+    // when true, sample() only says the call must be timed, and sample(nanos) decides
+    default boolean isTail() {
+        return false;
+    }
+
+    // after the call, for tail samplers
+    default boolean sample(long nanos) {
+        return true;
+    }
+
+    static Sampler rate(double rate) {
+        return new RateSampler(rate);
+    }
+
+    static Sampler perSecond(int limit) {
+        return new RateLimitSampler(limit);
+    }
+
+    static Sampler slowerThan(Duration threshold) {
+        return new TailSampler(threshold.toNanos());
+    }
+
+    static Sampler forAspect(Class<?> aspect) {
+        String spec = System.getProperty("sampling." + aspect.getSimpleName(), System.getProperty("sampling"));
+        return spec != null ? parse(spec) : ALWAYS;
+    }
+
+    static Sampler parse(String spec) {
+        int colon = spec.indexOf(':');
+        String kind = colon < 0 ? spec : spec.substring(0, colon);
+        String value = colon < 0 ? null : spec.substring(colon + 1);
+        try {
+            switch (kind) {
+                case "always":
+                    return ALWAYS;
+                case "never":
+                    return NEVER;
+                case "rate":
+                    return rate(Double.parseDouble(value));
+                case "limit":
+                    return perSecond(Integer.parseInt(value));
+                case "tail":
+                    return slowerThan(Duration.ofMillis(Long.parseLong(value)));
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sampler: " + spec, e);
+        }
+        throw new IllegalArgumentException("Invalid sampler: " + spec);
+    }
+}
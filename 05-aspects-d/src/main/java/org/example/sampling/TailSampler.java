@@ -0,0 +1,36 @@
+package org.example.sampling;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces only the calls that take at least a threshold. Every call is timed,
+ * but nothing else is done for the fast ones.
+ */
+final class TailSampler implements Sampler {
+
+    private final long thresholdNanos;
+
+    TailSampler(long thresholdNanos) {
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    @Override
+    public boolean sample() {
+        return true;
+    }
+
+    @Override
+    public boolean isTail() {
+        return true;
+    }
+
+    @Override
+    public boolean sample(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "tail:" + TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.logging;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Where the {@link AsyncLogger}s put their records. The callers never wait:
+ * each record goes into a slot of a ring buffer, claimed with a CAS, and a
+ * background thread takes the records in batches, formats them and writes
+ * them to a file channel. When the buffer is full the record is dropped and
+ * counted, and the writer logs how many were dropped. When it is empty the
+ * writer spins a little, then parks until a caller publishes the next record,
+ * so an idle sink doesn't wake up at all.
+ * <p>
+ * {@code -Dlog.file=aspects.log} writes to a file instead of the standard
+ * error, {@code -Dlog.level=OFF} turns the records off. What is left in the
+ * buffer is written when the JVM exits.
+ * <p>
+ * It isn't a bean: there is one sink per JVM, configured from the system
+ * properties when the class is loaded. Every context started in the JVM, like
+ * the ones of the benchmarks, logs through it at the same level and into the
+ * same file, with their records interleaved. Publishing is safe from any
+ * number of threads, so the contexts only share the capacity of the buffer.
+ */
+public final class AsyncLogSink {
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int BATCH = 1024;
+    private static final int SPINS = 100;
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final AsyncLogSink INSTANCE = new AsyncLogSink(
+            Level.parse(System.getProperty("log.level", "INFO")), System.getProperty("log.file"));
+
+    private final Level level;
+    private final FileChannel channel;
+    private final boolean ownsChannel;
+
+    private final Slot[] slots = new Slot[CAPACITY];
+    // slot i can be written for position p when its sequence is p, and read when it is p + 1
+    private final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    // the next position the callers claim
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    // the writer found the buffer empty and parks, the first caller to publish unparks it
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+
+    // only used by the writer thread
+    private long head;
+    private long reportedDrops;
+    private final StringBuilder text = new StringBuilder(256);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private AsyncLogSink(Level level, String file) {
+        this.level = level;
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        try {
+            this.ownsChannel = file != null;
+            this.channel = file != null
+                    ? FileChannel.open(Path.of(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)
+                    : new FileOutputStream(FileDescriptor.err).getChannel();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.writer = new Thread(this::writeRecords, "async-log-writer");
+        writer.setDaemon(true);
+        if (level != Level.OFF) {
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "async-log-shutdown"));
+        }
+    }
+
+    public static AsyncLogSink getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isLoggable(Level level) {
+        return level.intValue() >= this.level.intValue();
+    }
+
+    // the records lost because the buffer was full
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    void publish(Level level, String logger, String pattern, int argCount, Object arg1, Object arg2) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) position & (CAPACITY - 1);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // the writer hasn't read this slot yet
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+        Slot slot = slots[index];
+        slot.time = System.currentTimeMillis();
+        slot.level = level;
+        slot.logger = logger;
+        slot.pattern = pattern;
+        slot.argCount = argCount;
+        slot.arg1 = arg1;
+        slot.arg2 = arg2;
+        sequences.lazySet(index, position + 1);
+        // read after the CAS on tail, so either the writer sees the record or this sees the writer asleep
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeRecords() {
+        int idle = 0;
+        while (true) {
+            int count = writeBatch();
+            if (count > 0) {
+                idle = 0;
+                continue;
+            }
+            if (closed) {
+                break;
+            }
+            if (++idle < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                sleeping.set(true);
+                // a record claimed before sleeping was set may not have seen it
+                if (tail.get() == head && !closed) {
+                    LockSupport.park(this);
+                }
+                sleeping.set(false);
+                idle = 0;
+            }
+        }
+    }
+
+    private int writeBatch() {
+        int count = 0;
+        try {
+            while (count < BATCH) {
+                int index = (int) head & (CAPACITY - 1);
+                if (sequences.get(index) != head + 1) {
+                    break;
+                }
+                Slot slot = slots[index];
+                format(slot);
+                slot.clear();
+                sequences.lazySet(index, head + CAPACITY);
+                head++;
+                count++;
+                encode();
+            }
+            long drops = dropped.sum();
+            if (drops > reportedDrops) {
+                text.setLength(0);
+                text.append(TIME.format(Instant.now())).append(' ').append(Level.WARNING).append(' ')
+                        .append(AsyncLogSink.class.getName()).append(" - ").append(drops - reportedDrops)
+                        .append(" log records dropped, ").append(drops).append(" in total\n");
+                reportedDrops = drops;
+                encode();
+            }
+            flush();
+        } catch (IOException e) {
+            // nowhere left to report it
+            closed = true;
+        }
+        written.addAndGet(count);
+        return count;
+    }
+
+    private void format(Slot slot) {
+        text.setLength(0);
+        text.append(TIME.format(Instant.ofEpochMilli(slot.time))).append(' ').append(slot.level).append(' ')
+                .append(slot.logger).append(" - ");
+        String pattern = slot.pattern;
+        int from = 0;
+        for (int arg = 0; arg < slot.argCount; arg++) {
+            int at = pattern.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            text.append(pattern, from, at);
+            appendArg(arg == 0 ? slot.arg1 : slot.arg2);
+            from = at + 2;
+        }
+        text.append(pattern, from, pattern.length()).append('\n');
+    }
+
+    // a failing toString() must not stop the writer
+    private void appendArg(Object arg) {
+        int length = text.length();
+        try {
+            text.append(arg);
+        } catch (RuntimeException e) {
+            text.setLength(length);
+            text.append('[').append(e).append(']');
+        }
+    }
+
+    private void encode() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+            flush();
+        }
+        encoder.reset();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            // the callers may still have published a few records after the writer stopped
+            if (!writer.isAlive()) {
+                writeBatch();
+            }
+            if (ownsChannel) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // exiting anyway
+        }
+    }
+
+    private static final class Slot {
+
+        long time;
+        Level level;
+        String logger;
+        String pattern;
+        int argCount;
+        Object arg1;
+        Object arg2;
+
+        void clear() {
+            level = null;
+            logger = null;
+            pattern = null;
+            arg1 = null;
+            arg2 = null;
+        }
+    }
+}
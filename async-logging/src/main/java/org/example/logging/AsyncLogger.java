@@ -0,0 +1,51 @@
+package org.example.logging;
+
+import java.util.logging.Level;
+
+/**
+ * A logger that hands its records to the {@link AsyncLogSink} and returns.
+ * The message is a pattern where each {@code {}} is replaced by the next
+ * argument, and it is only built by the writer thread, so nothing is
+ * concatenated when the level is off. The arguments are formatted later,
+ * log values that don't change afterwards.
+ */
+public final class AsyncLogger {
+
+    private final String name;
+    private final AsyncLogSink sink;
+
+    private AsyncLogger(String name, AsyncLogSink sink) {
+        this.name = name;
+        this.sink = sink;
+    }
+
+    public static AsyncLogger getLogger(String name) {
+        return new AsyncLogger(name, AsyncLogSink.getInstance());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isInfoEnabled() {
+        return sink.isLoggable(Level.INFO);
+    }
+
+    public void info(String message) {
+        if (isInfoEnabled()) {
+            sink.publish(Level.INFO, name, message, 0, null, null);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (isInfoEnabled()) {
+            sink.publish(Level.INFO, name, pattern, 1, arg, null);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (isInfoEnabled()) {
+            sink.publish(Level.INFO, name, pattern, 2, arg1, arg2);
+        }
+    }
+}
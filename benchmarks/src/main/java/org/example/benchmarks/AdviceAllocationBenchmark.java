@@ -0,0 +1,77 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 05-aspects-a: {@code CommentService.publishComment} called directly, through
+ * Spring's {@code @Around} advice and through the {@code CachingAroundAdvice}.
+ * Run it with {@code -prof gc} to see the bytes allocated per call
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdviceAllocationBenchmark {
+
+    static final String ASPECT = "org.example.aspects.LoggingAspect";
+    static final String PROXY_CREATOR = "org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator";
+
+    @Param({"direct", "spring", "caching"})
+    public String advice;
+
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        Lesson lesson = Lesson.load("05-aspects-a");
+        switch (advice) {
+            case "direct":
+                context = lesson.context(SERVICE);
+                break;
+            case "spring":
+                context = lesson.context(SERVICE, ASPECT, PROXY_CREATOR);
+                break;
+            default:
+                context = lesson.context(SERVICE, ASPECT, PROXY_CREATOR, "org.example.aop.CachingAopPostProcessor");
+        }
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
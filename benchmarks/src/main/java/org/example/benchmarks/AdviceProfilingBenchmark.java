@@ -0,0 +1,73 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 05-aspects-d: {@code CommentService.publishComment} with and without the
+ * {@code AdviceProfiler}. When profiled, the time of each advice is printed
+ * at the end of the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdviceProfilingBenchmark {
+
+    static final String PROFILER = "org.example.profiling.AdviceProfiler";
+
+    @Param({"false", "true"})
+    public boolean profiled;
+
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+    private Object profiler;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        System.setProperty("profile.advice", String.valueOf(profiled));
+        Lesson lesson = Lesson.load("05-aspects-d");
+        context = lesson.context();
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+        profiler = context.getBean(lesson.type(PROFILER));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (profiled) {
+            // the output is silenced, the error isn't
+            System.err.println(profiler);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
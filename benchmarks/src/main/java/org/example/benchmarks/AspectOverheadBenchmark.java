@@ -0,0 +1,64 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calling {@code CommentService.publishComment} through zero, one (05-aspects-a)
+ * and two (05-aspects-d) {@code @Around} aspects. The "none" case registers the
+ * 05-aspects-a service alone, so it isn't proxied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectOverheadBenchmark {
+
+    static final String SERVICE = "org.example.services.CommentService";
+    static final String COMMENT = "org.example.model.Comment";
+
+    @Param({"none", "one", "two"})
+    public String aspects;
+
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        Lesson lesson = Lesson.load(aspects.equals("two") ? "05-aspects-d" : "05-aspects-a");
+        context = aspects.equals("none") ? lesson.context(SERVICE) : lesson.context();
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
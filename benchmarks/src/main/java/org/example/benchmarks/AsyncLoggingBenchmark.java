@@ -0,0 +1,73 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 05-aspects-a: {@code CommentService.publishComment} with the two records
+ * of {@code LoggingAspect} turned off, and written by the {@code AsyncLogSink}
+ * to a temporary file. The records the writer can't keep up with are
+ * dropped, the file ends with how many.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncLoggingBenchmark {
+
+    @Param({"OFF", "INFO"})
+    public String level;
+
+    private Path file;
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+
+    @Setup
+    public void setUp() throws IOException {
+        Lesson.silenceOutput();
+        file = Files.createTempFile("aspects", ".log");
+        System.setProperty("log.level", level);
+        System.setProperty("log.file", file.toString());
+        Lesson lesson = Lesson.load("05-aspects-a");
+        context = lesson.context();
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
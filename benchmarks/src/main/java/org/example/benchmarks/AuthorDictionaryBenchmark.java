@@ -0,0 +1,101 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+
+/**
+ * 03-abstractions-b: creating and keeping 10 million comments of 1000
+ * authors, each author decoded into a new string like it would be when read
+ * from a request, without and with {@code ConcurrentAuthorDictionary}. A few
+ * authors write most of the comments. The heap still used by the comments is
+ * printed after each iteration; run with {@code -prof gc} for the GC time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AuthorDictionaryBenchmark {
+
+    static final String DICTIONARY = "org.example.codec.ConcurrentAuthorDictionary";
+    static final int COMMENTS = 10_000_000;
+    static final int AUTHORS = 1000;
+
+    @Param({"plain", "interned"})
+    public String authors;
+
+    private MethodHandle newComment;
+    private MethodHandle intern;
+    private byte[][] names;
+    // the author of each comment, the first ones much more often than the last ones
+    private int[] authorIndexes;
+    private Object[] comments;
+    private long baseline;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Lesson lesson = Lesson.load("03-abstractions-b");
+        newComment = lesson.constructor(COMMENT, String.class, String.class);
+        intern = lesson.method(DICTIONARY, "intern", String.class, String.class)
+                .bindTo(lesson.constructor(DICTIONARY, int.class).invoke(AUTHORS));
+        names = new byte[AUTHORS][];
+        for (int i = 0; i < AUTHORS; i++) {
+            names[i] = ("author-" + i).getBytes(StandardCharsets.UTF_8);
+        }
+        var random = new SplittableRandom(42);
+        authorIndexes = new int[COMMENTS];
+        for (int i = 0; i < COMMENTS; i++) {
+            double r = random.nextDouble();
+            authorIndexes[i] = (int) (r * r * r * AUTHORS);
+        }
+        comments = new Object[COMMENTS];
+        baseline = usedHeap();
+    }
+
+    @Benchmark
+    public Object[] createComments() throws Throwable {
+        boolean interned = authors.equals("interned");
+        String text = "Hello World";
+        for (int i = 0; i < COMMENTS; i++) {
+            String author = new String(names[authorIndexes[i]], StandardCharsets.UTF_8);
+            if (interned) {
+                author = (String) intern.invokeExact(author);
+            }
+            comments[i] = newComment.invoke(author, text);
+        }
+        return comments;
+    }
+
+    @TearDown(Level.Iteration)
+    public void printHeap() {
+        System.err.printf("%s: %d MB retained by %d comments%n", authors,
+                (usedHeap() - baseline) / (1024 * 1024), COMMENTS);
+        Arrays.fill(comments, null);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+
+/**
+ * 04-scopes: validating and processing 1 million comments, one in 100
+ * without a text. "caller" borrows a {@code CommentProcessor} for each
+ * comment like {@code publishComment} does, the others give the whole batch
+ * to {@code CommentBatchProcessor} on a pool of 1, 2 and 4 workers. The
+ * workers only scale as far as the machine has cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CommentBatchBenchmark {
+
+    static final String PROCESSOR = "org.example.processors.CommentProcessor";
+    static final String POOL = "org.example.processors.CommentProcessorPool";
+    static final String BATCH_PROCESSOR = "org.example.processors.CommentBatchProcessor";
+    static final int COMMENTS = 1_000_000;
+
+    @Param({"caller", "1", "2", "4"})
+    public String workers;
+
+    private AnnotationConfigApplicationContext context;
+    private ForkJoinPool forkJoinPool;
+    private Object pool;
+    private MethodHandle borrow;
+    private MethodHandle release;
+    private MethodHandle setComment;
+    private MethodHandle validateComment;
+    private MethodHandle processComment;
+    private MethodHandle getComment;
+    private MethodHandle process;
+    private List<Object> comments;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Lesson.silenceOutput();
+        var lesson = Lesson.load("04-scopes");
+        context = lesson.context();
+        Class<?> commentType = lesson.type(COMMENT);
+        Class<?> processorType = lesson.type(PROCESSOR);
+        pool = context.getBean(lesson.type(POOL));
+        borrow = lesson.method(POOL, "borrow", processorType);
+        release = lesson.method(POOL, "release", void.class, processorType);
+        setComment = lesson.method(PROCESSOR, "setComment", void.class, commentType);
+        validateComment = lesson.method(PROCESSOR, "validateComment", boolean.class);
+        processComment = lesson.method(PROCESSOR, "processComment", void.class);
+        getComment = lesson.method(PROCESSOR, "getComment", commentType);
+        if (!workers.equals("caller")) {
+            forkJoinPool = new ForkJoinPool(Integer.parseInt(workers));
+            Object batchProcessor = lesson.constructor(BATCH_PROCESSOR, lesson.type(POOL), ForkJoinPool.class)
+                    .invoke(pool, forkJoinPool);
+            process = lesson.method(BATCH_PROCESSOR, "process", lesson.type(
+                    "org.example.processors.BatchResult"), List.class).bindTo(batchProcessor);
+        }
+
+        comments = new ArrayList<>(COMMENTS);
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(lesson.newInstance(COMMENT, "author" + i % 1000, i % 100 == 0 ? "" : "comment " + i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdown();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Object processComments() throws Throwable {
+        if (process != null) {
+            return process.invoke(comments);
+        }
+        List<Object> processed = new ArrayList<>(COMMENTS);
+        for (Object comment : comments) {
+            Object processor = borrow.invoke(pool);
+            try {
+                setComment.invoke(processor, comment);
+                if ((boolean) validateComment.invoke(processor)) {
+                    processComment.invoke(processor);
+                    processed.add(getComment.invoke(processor));
+                }
+            } finally {
+                release.invoke(pool, processor);
+            }
+        }
+        return processed;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+
+/**
+ * 03-abstractions-b: encoding and decoding a {@code Comment} with
+ * {@code CommentCodec} (without and with an author dictionary), Java
+ * serialization and Jackson JSON. The bytes per comment of each format are
+ * printed when the fork starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentCodecBenchmark {
+
+    static final String CODEC = "org.example.codec.CommentCodec";
+    static final String DICTIONARY = "org.example.codec.AuthorDictionary";
+
+    @Param({"codec", "dictionary", "java", "json"})
+    public String format;
+
+    private Lesson lesson;
+    private Class<?> commentType;
+    private Object comment;
+    private MethodHandle codecEncode;
+    private MethodHandle codecDecode;
+    private ObjectMapper mapper;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Throwable {
+        lesson = Lesson.load("03-abstractions-b");
+        commentType = lesson.type(COMMENT);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+
+        Object codec;
+        if (format.equals("dictionary")) {
+            Class<?> dictionaryType = lesson.type(DICTIONARY);
+            Object dictionary = dictionaryType.getMethod("of", List.class).invoke(null, List.of("Jane", "John"));
+            codec = lesson.constructor(CODEC, dictionaryType).invoke(dictionary);
+        } else {
+            codec = lesson.newInstance(CODEC);
+        }
+        codecEncode = lesson.method(CODEC, "encode", byte[].class, commentType).bindTo(codec);
+        codecDecode = lesson.method(CODEC, "decode", commentType, byte[].class).bindTo(codec);
+        mapper = new ObjectMapper().addMixIn(commentType, CommentMixin.class);
+
+        encoded = encode();
+        System.err.println(format + ": " + encoded.length + " bytes per comment");
+    }
+
+    @Benchmark
+    public byte[] encode() throws Throwable {
+        switch (format) {
+            case "java":
+                var bytes = new ByteArrayOutputStream();
+                try (var out = new ObjectOutputStream(bytes)) {
+                    out.writeObject(comment);
+                }
+                return bytes.toByteArray();
+            case "json":
+                return mapper.writeValueAsBytes(comment);
+            default:
+                return (byte[]) codecEncode.invoke(comment);
+        }
+    }
+
+    @Benchmark
+    public Object decode() throws Throwable {
+        switch (format) {
+            case "java":
+                try (var in = new LessonObjectInputStream(new ByteArrayInputStream(encoded), lesson)) {
+                    return in.readObject();
+                }
+            case "json":
+                return mapper.readValue(encoded, commentType);
+            default:
+                return codecDecode.invoke(encoded);
+        }
+    }
+
+    // Jackson needs to know which constructor to call
+    abstract static class CommentMixin {
+
+        @JsonCreator
+        CommentMixin(@JsonProperty("author") String author, @JsonProperty("text") String text) {
+        }
+    }
+
+    // the comment class is in the class loader of the lesson
+    static final class LessonObjectInputStream extends ObjectInputStream {
+
+        private final Lesson lesson;
+
+        LessonObjectInputStream(InputStream in, Lesson lesson) throws IOException {
+            super(in);
+            this.lesson = lesson;
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            return Class.forName(desc.getName(), false, lesson.getClassLoader());
+        }
+    }
+}
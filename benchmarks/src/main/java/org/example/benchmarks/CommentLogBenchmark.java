@@ -0,0 +1,94 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+
+/**
+ * 03-abstractions-b: {@code MappedCommentRepository.storeComments} with 100
+ * comments, in ns per comment, forcing each call to disk, every 100 ms and
+ * leaving it to the OS. Each iteration starts a new log in a temporary
+ * directory, deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentLogBenchmark {
+
+    static final String REPOSITORY = "org.example.repositories.MappedCommentRepository";
+    static final int BATCH = 100;
+
+    @Param({"BATCH", "INTERVAL", "OS"})
+    public String policy;
+
+    private MethodHandle newRepository;
+    private MethodHandle storeComments;
+    private MethodHandle close;
+    private Object policyValue;
+    private List<Object> comments;
+
+    private Path directory;
+    private Object repository;
+
+    @Setup
+    public void setUp() {
+        Lesson lesson = Lesson.load("03-abstractions-b");
+        Class<?> policyType = lesson.type(REPOSITORY + "$FsyncPolicy");
+        policyValue = policyType.getEnumConstants()[List.of("BATCH", "INTERVAL", "OS").indexOf(policy)];
+        newRepository = lesson.constructor(REPOSITORY, Path.class, int.class, policyType, Duration.class);
+        storeComments = lesson.method(REPOSITORY, "storeComments", void.class, List.class);
+        close = lesson.method(REPOSITORY, "close", void.class);
+        comments = Collections.nCopies(BATCH, lesson.newInstance(COMMENT, "John", "Hello World"));
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws Throwable {
+        directory = Files.createTempDirectory("comments");
+        repository = newRepository.invoke(directory, 64 * 1024 * 1024, policyValue, Duration.ofMillis(100));
+    }
+
+    @TearDown(Level.Iteration)
+    public void delete() throws Throwable {
+        close.invoke(repository);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void storeComments() throws Throwable {
+        storeComments.invoke(repository, comments);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding thousands of components, either by scanning the classpath or through
+ * the {@code META-INF/spring.components} index that spring-context-indexer
+ * generates at build time. Only the scan is measured: refreshing the context
+ * afterwards costs the same either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentIndexBenchmark {
+
+    @Param({"5000"})
+    public int components;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private SyntheticComponents synthetic;
+
+    @Setup
+    public void setUp() {
+        synthetic = SyntheticComponents.generate(components, indexed);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        synthetic.close();
+    }
+
+    @Benchmark
+    public int scanComponents() {
+        var classLoader = synthetic.getClassLoader();
+        var context = new GenericApplicationContext();
+        context.setClassLoader(classLoader);
+        // the scanner reads the index (if any) from the class loader of its resource loader
+        var scanner = new ClassPathBeanDefinitionScanner(context, true, context.getEnvironment(),
+                new DefaultResourceLoader(classLoader));
+        return scanner.scan(SyntheticComponents.PACKAGE);
+    }
+}
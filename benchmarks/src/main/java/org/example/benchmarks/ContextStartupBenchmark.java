@@ -0,0 +1,76 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Building (and closing) an {@code AnnotationConfigApplicationContext} for the
+ * {@code ProjectConfig} of each lesson. The lesson classes stay loaded between
+ * invocations, so this is the warm startup cost, without class loading.
+ * 02-dependency-injection-f is left out because its context fails on purpose.
+ * 03-abstractions-b keeps its comment log in a new temporary directory, so it
+ * doesn't recover the comments left in the default one by earlier runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextStartupBenchmark {
+
+    @Param({
+            "01-spring-context",
+            "02-dependency-injection-a", "02-dependency-injection-b", "02-dependency-injection-c",
+            "02-dependency-injection-d", "02-dependency-injection-e", "02-dependency-injection-g",
+            "02-dependency-injection-h", "02-dependency-injection-i",
+            "03-abstractions-b",
+            "04-scopes",
+            "05-aspects-a", "05-aspects-b", "05-aspects-c", "05-aspects-d"
+    })
+    public String lesson;
+
+    private Path directory;
+    private Lesson loaded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Lesson.silenceOutput();
+        directory = Files.createTempDirectory("comments");
+        System.setProperty("comments.dir", directory.toString());
+        loaded = Lesson.load(lesson);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Object startContext() {
+        var context = loaded.context();
+        context.close();
+        return context;
+    }
+}
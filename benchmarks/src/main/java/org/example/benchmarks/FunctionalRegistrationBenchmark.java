@@ -0,0 +1,64 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starting the same context from {@code ProjectConfig} and from the
+ * {@code ProjectConfigInitializer} the initializer processor generates for it,
+ * which registers its beans with suppliers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionalRegistrationBenchmark {
+
+    @Param({"01-spring-context", "02-dependency-injection-i", "04-scopes", "05-aspects-a"})
+    public String lesson;
+
+    @Param({"annotations", "functional"})
+    public String mode;
+
+    private Lesson loaded;
+    private ApplicationContextInitializer<GenericApplicationContext> initializer;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Lesson.silenceOutput();
+        loaded = Lesson.load(lesson);
+        initializer = (ApplicationContextInitializer<GenericApplicationContext>)
+                loaded.newInstance("org.example.config.ProjectConfigInitializer");
+    }
+
+    @Benchmark
+    public Object startContext() {
+        GenericApplicationContext context;
+        if (mode.equals("annotations")) {
+            context = loaded.context();
+        } else {
+            context = new GenericApplicationContext();
+            context.setClassLoader(loaded.getClassLoader());
+            initializer.initialize(context);
+            context.refresh();
+        }
+        context.close();
+        return context;
+    }
+}
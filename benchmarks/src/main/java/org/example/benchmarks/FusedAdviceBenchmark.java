@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AdviceAllocationBenchmark.PROXY_CREATOR;
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 05-aspects-d: {@code CommentService.publishComment} through
+ * {@code SecurityAspect} and {@code LoggingAspect}, each called by its own
+ * Spring interceptor, and both fused in one by the lesson's
+ * {@code ProjectConfig}. Run it with {@code -prof gc} to see the bytes
+ * allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FusedAdviceBenchmark {
+
+    @Param({"spring", "fused"})
+    public String chain;
+
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        Lesson lesson = Lesson.load("05-aspects-d");
+        context = chain.equals("fused") ? lesson.context()
+                : lesson.context(SERVICE, "org.example.aspects.SecurityAspect", "org.example.aspects.LoggingAspect",
+                PROXY_CREATOR);
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
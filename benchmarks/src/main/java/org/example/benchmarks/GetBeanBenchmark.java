@@ -0,0 +1,81 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 01-spring-context: looking singletons up by type and by name, with the
+ * default bean factory and with the {@code IndexedBeanFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetBeanBenchmark {
+
+    @Param({"default", "indexed"})
+    public String factory;
+
+    private AnnotationConfigApplicationContext context;
+    private Class<?> parrotType;
+    private Class<?> catType;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        var lesson = Lesson.load("01-spring-context");
+        var beanFactory = factory.equals("indexed")
+                ? (DefaultListableBeanFactory) lesson.newInstance("org.example.context.IndexedBeanFactory")
+                : new DefaultListableBeanFactory();
+        context = lesson.context(beanFactory, "org.example.config.ProjectConfig");
+        parrotType = lesson.type("org.example.animals.Parrot");
+        catType = lesson.type("org.example.animals.Cat");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object byType() {
+        return context.getBean(parrotType);
+    }
+
+    // three Cat beans, getBean(Class) fails
+    @Benchmark
+    public Object byTypeAmbiguous() {
+        try {
+            return context.getBean(catType);
+        } catch (NoUniqueBeanDefinitionException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object byName() {
+        return context.getBean("parrot");
+    }
+
+    @Benchmark
+    public Object byNameAndType() {
+        return context.getBean("cat2", catType);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.benchmarks;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * The compiled classes of one lesson module, loaded in their own class loader.
+ * Every lesson declares the same packages ({@code org.example.config},
+ * {@code org.example.model}, ...), so they cannot share a single classpath.
+ * Lessons are read from {@code <lessons.dir>/<lesson>/target/classes}, where
+ * {@code lessons.dir} defaults to the parent of the working directory.
+ */
+public final class Lesson {
+
+    private final String name;
+    private final ClassLoader classLoader;
+
+    private Lesson(String name, ClassLoader classLoader) {
+        this.name = name;
+        this.classLoader = classLoader;
+    }
+
+    public static Lesson load(String name) {
+        return load(name, "target/classes");
+    }
+
+    public static Lesson load(String name, String classesDir) {
+        Path classes = root().resolve(name).resolve(classesDir);
+        if (!Files.isDirectory(classes)) {
+            throw new IllegalStateException("Compile " + name + " before running the benchmarks, " +
+                    classes + " does not exist");
+        }
+        try {
+            URL[] urls = {classes.toUri().toURL()};
+            return new Lesson(name, new URLClassLoader(name, urls, Lesson.class.getClassLoader()));
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Path root() {
+        return Path.of(System.getProperty("lessons.dir", "..")).toAbsolutePath().normalize();
+    }
+
+    // lessons print to stdout on their hot paths, which would dominate what we measure
+    public static void silenceOutput() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        LogManager.getLogManager().reset();
+        Logger.getLogger("").setLevel(Level.OFF);
+        // the AsyncLogSink of the 05 lessons, read when a benchmark first uses it
+        System.setProperty("log.level", "OFF");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    public Class<?> type(String className) {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(className + " not found in " + name, e);
+        }
+    }
+
+    public AnnotationConfigApplicationContext context() {
+        return context("org.example.config.ProjectConfig");
+    }
+
+    public AnnotationConfigApplicationContext context(String... componentClassNames) {
+        return context(new DefaultListableBeanFactory(), componentClassNames);
+    }
+
+    public AnnotationConfigApplicationContext context(DefaultListableBeanFactory beanFactory,
+                                                      String... componentClassNames) {
+        var context = new AnnotationConfigApplicationContext(beanFactory);
+        context.setClassLoader(classLoader);
+        for (String className : componentClassNames) {
+            context.register(type(className));
+        }
+        context.refresh();
+        return context;
+    }
+
+    public MethodHandle constructor(String className, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(type(className), MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public MethodHandle method(String className, String methodName, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(type(className), methodName, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Object newInstance(String className, Object... args) {
+        Class<?>[] parameterTypes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            parameterTypes[i] = args[i].getClass();
+        }
+        try {
+            return constructor(className, parameterTypes).invokeWithArguments(args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
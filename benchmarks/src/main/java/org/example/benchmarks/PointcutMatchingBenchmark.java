@@ -0,0 +1,102 @@
+package org.example.benchmarks;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 05-aspects-d: starting a context of 5000 components, with a few methods each,
+ * and 20 advisors, with Spring's proxy creator and with the
+ * {@code IndexingAutoProxyCreator} of the lesson. One component in a hundred
+ * has a {@code @ToLog} method, so a few of them are proxied either way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointcutMatchingBenchmark {
+
+    private static final String INDEXING_CREATOR = "org.example.aop.IndexingAutoProxyCreator";
+    private static final String TO_LOG = "org.example.aspects.ToLog";
+
+    private static final MethodInterceptor PROCEED = invocation -> invocation.proceed();
+
+    @Param({"5000"})
+    public int components;
+
+    @Param({"20"})
+    public int advisors;
+
+    @Param({"default", "indexing"})
+    public String creator;
+
+    private SyntheticComponents synthetic;
+    private Class<?> creatorType;
+
+    @Setup
+    public void setUp() {
+        Lesson lesson = Lesson.load("05-aspects-d");
+        synthetic = SyntheticComponents.generate(components, false, 5, TO_LOG, lesson.getClassLoader());
+        creatorType = creator.equals("indexing")
+                ? lesson.type(INDEXING_CREATOR) : AnnotationAwareAspectJAutoProxyCreator.class;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        synthetic.close();
+    }
+
+    // the kinds of pointcuts an application has: on an annotation, on a method, on a type, on a package
+    static String expression(int i) {
+        switch (i % 4) {
+            case 0:
+                return "execution(* *(..)) && @annotation(" + TO_LOG + ")";
+            case 1:
+                return "execution(* " + SyntheticComponents.PACKAGE + ".Component" + i + ".method0(..))";
+            case 2:
+                return "execution(public * org.example.services.CommentService.*(..))";
+            default:
+                return "within(org.example.services..*)";
+        }
+    }
+
+    @Benchmark
+    public int startContext() {
+        var context = new GenericApplicationContext();
+        context.setClassLoader(synthetic.getClassLoader());
+        context.registerBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, new RootBeanDefinition(creatorType));
+        for (int i = 0; i < advisors; i++) {
+            var advisor = new RootBeanDefinition(AspectJExpressionPointcutAdvisor.class);
+            advisor.getPropertyValues().add("expression", expression(i)).add("advice", PROCEED);
+            context.registerBeanDefinition("advisor" + i, advisor);
+        }
+        for (int i = 0; i < components; i++) {
+            context.registerBeanDefinition("component" + i,
+                    new RootBeanDefinition(SyntheticComponents.PACKAGE + ".Component" + i));
+        }
+        context.refresh();
+        int count = context.getBeanDefinitionCount();
+        context.close();
+        return count;
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 04-scopes: ways of getting a {@code CommentProcessor} prototype.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrototypeLookupBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private Class<?> processorType;
+    private ObjectProvider<?> provider;
+    private Object pool;
+    private MethodHandle borrow;
+    private MethodHandle release;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        var lesson = Lesson.load("04-scopes");
+        context = lesson.context();
+        processorType = lesson.type("org.example.processors.CommentProcessor");
+        provider = context.getBeanProvider(processorType);
+
+        String poolType = "org.example.processors.CommentProcessorPool";
+        pool = context.getBean(lesson.type(poolType));
+        borrow = lesson.method(poolType, "borrow", processorType);
+        release = lesson.method(poolType, "release", void.class, processorType);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getBeanByType() {
+        return context.getBean(processorType);
+    }
+
+    @Benchmark
+    public Object getBeanByName() {
+        return context.getBean("commentProcessor");
+    }
+
+    @Benchmark
+    public Object objectProvider() {
+        return provider.getObject();
+    }
+
+    @Benchmark
+    public Object pooled() throws Throwable {
+        Object processor = borrow.invoke(pool);
+        release.invoke(pool, processor);
+        return processor;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 03-abstractions-b: publishing 10 000 comments with {@code CommentService},
+ * one {@code publishComment} call each and as one stream with
+ * {@code publishComments}, in ns per comment. The comments are stored in a log
+ * in a temporary directory. The stats of the last stream are printed at the
+ * end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublishCommentsBenchmark {
+
+    static final int COMMENTS = 10_000;
+
+    @Param({"single", "stream"})
+    public String publish;
+
+    private Path directory;
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private MethodHandle publishComments;
+    private List<Object> comments;
+    private Object stats;
+
+    @Setup
+    public void setUp() throws IOException {
+        Lesson.silenceOutput();
+        directory = Files.createTempDirectory("comments");
+        System.setProperty("comments.dir", directory.toString());
+        Lesson lesson = Lesson.load("03-abstractions-b");
+        context = lesson.context();
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        publishComments = lesson.method(SERVICE, "publishComments", lesson.type(
+                "org.example.services.PublishStats"), Stream.class).bindTo(service);
+        comments = Collections.nCopies(COMMENTS, lesson.newInstance(COMMENT, "John", "Hello World"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        if (stats != null) {
+            System.err.println(stats);
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMENTS)
+    public void publishComments() throws Throwable {
+        if (publish.equals("stream")) {
+            stats = publishComments.invoke(comments.stream());
+            return;
+        }
+        for (Object comment : comments) {
+            publishComment.invoke(comment);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.benchmarks;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the class files of {@code count} empty {@code @Component} classes to a
+ * temporary directory, for startup benchmarks with more components than any
+ * lesson has. With {@code indexed} the directory also gets the
+ * {@code META-INF/spring.components} file that spring-context-indexer would
+ * have generated for them. The components can also get a few empty methods,
+ * with an annotation on the first method of one component in a hundred.
+ */
+public final class SyntheticComponents implements AutoCloseable {
+
+    public static final String PACKAGE = "org.example.synthetic";
+
+    private static final String COMPONENT = "org/springframework/stereotype/Component";
+
+    private final Path directory;
+    private final URLClassLoader classLoader;
+
+    private SyntheticComponents(Path directory, ClassLoader parent) throws MalformedURLException {
+        this.directory = directory;
+        this.classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, parent);
+    }
+
+    public static SyntheticComponents generate(int count, boolean indexed) {
+        return generate(count, indexed, 0, null, SyntheticComponents.class.getClassLoader());
+    }
+
+    // the annotation class must be visible from the parent class loader
+    public static SyntheticComponents generate(int count, boolean indexed, int methods, String annotation,
+                                               ClassLoader parent) {
+        try {
+            Path directory = Files.createTempDirectory("synthetic-components");
+            Path packageDirectory = Files.createDirectories(directory.resolve(PACKAGE.replace('.', '/')));
+            var index = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                String simpleName = "Component" + i;
+                String annotated = annotation != null && i % 100 == 0 ? annotation : null;
+                Files.write(packageDirectory.resolve(simpleName + ".class"),
+                        componentClass(PACKAGE.replace('.', '/') + "/" + simpleName, methods, annotated));
+                index.append(PACKAGE).append('.').append(simpleName).append('=')
+                        .append(COMPONENT.replace('/', '.')).append('\n');
+            }
+            if (indexed) {
+                Path metaInf = Files.createDirectories(directory.resolve("META-INF"));
+                Files.writeString(metaInf.resolve("spring.components"), index);
+            }
+            return new SyntheticComponents(directory, parent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] componentClass(String internalName, int methods, String annotation) {
+        var writer = new ClassWriter(0);
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null,
+                "java/lang/Object", null);
+        writer.visitAnnotation("L" + COMPONENT + ";", true).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(1, 1);
+        constructor.visitEnd();
+
+        for (int i = 0; i < methods; i++) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "()V", null, null);
+            if (i == 0 && annotation != null) {
+                method.visitAnnotation("L" + annotation.replace('.', '/') + ";", true).visitEnd();
+            }
+            method.visitCode();
+            method.visitInsn(Opcodes.RETURN);
+            method.visitMaxs(0, 1);
+            method.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        classLoader.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
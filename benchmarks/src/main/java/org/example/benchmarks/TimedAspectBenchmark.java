@@ -0,0 +1,75 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.benchmarks.AdviceAllocationBenchmark.PROXY_CREATOR;
+import static org.example.benchmarks.AspectOverheadBenchmark.COMMENT;
+import static org.example.benchmarks.AspectOverheadBenchmark.SERVICE;
+
+/**
+ * 05-aspects-c: {@code CommentService.publishComment} without aspects, and
+ * with the {@code TimingAspect} recording its latency through a proxy and
+ * woven by ajc (from {@code target/ctw/classes}, {@code mvn -Pctw compile}
+ * 05-aspects-c first).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimedAspectBenchmark {
+
+    @Param({"none", "timed", "woven"})
+    public String aspects;
+
+    private AnnotationConfigApplicationContext context;
+    private MethodHandle publishComment;
+    private Object comment;
+
+    @Setup
+    public void setUp() {
+        Lesson.silenceOutput();
+        Lesson lesson = Lesson.load("05-aspects-c", aspects.equals("woven") ? "target/ctw/classes" : "target/classes");
+        switch (aspects) {
+            case "none":
+                context = lesson.context(SERVICE);
+                break;
+            case "timed":
+                context = lesson.context(SERVICE, "org.example.aspects.TimingAspect", PROXY_CREATOR);
+                break;
+            default:
+                context = lesson.context();
+        }
+
+        Class<?> commentType = lesson.type(COMMENT);
+        Object service = context.getBean(lesson.type(SERVICE));
+        publishComment = lesson.method(SERVICE, "publishComment", void.class, commentType).bindTo(service);
+        comment = lesson.newInstance(COMMENT, "John", "Hello World");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void publishComment() throws Throwable {
+        publishComment.invoke(comment);
+    }
+}
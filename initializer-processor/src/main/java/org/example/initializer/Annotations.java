@@ -0,0 +1,121 @@
+package org.example.initializer;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the annotations of the elements by the name of their type, so the
+ * processor doesn't need Spring on its own classpath.
+ */
+final class Annotations {
+
+    private final Elements elements;
+
+    Annotations(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+    }
+
+    // declared on the element itself
+    AnnotationMirror find(Element element, String type) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (nameOf(annotation).equals(type)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    boolean has(Element element, String type) {
+        return find(element, type) != null;
+    }
+
+    // declared on the element or on one of its annotations, like @Service is a @Component
+    boolean isAnnotated(Element element, String type) {
+        return isAnnotated(element, type, new HashSet<>());
+    }
+
+    private boolean isAnnotated(Element element, String type, Set<String> visited) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            String name = nameOf(annotation);
+            if (name.equals(type)) {
+                return true;
+            }
+            if (visited.add(name) && isAnnotated(annotation.getAnnotationType().asElement(), type, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String nameOf(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    // the attributes that are set, not the defaults
+    Set<String> explicit(AnnotationMirror annotation) {
+        Set<String> names = new HashSet<>();
+        for (ExecutableElement attribute : annotation.getElementValues().keySet()) {
+            names.add(attribute.getSimpleName().toString());
+        }
+        return names;
+    }
+
+    Object value(AnnotationMirror annotation, String attribute) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        }
+        if (!values.containsKey(attribute)) {
+            throw new IllegalArgumentException(nameOf(annotation) + " has no attribute " + attribute);
+        }
+        return values.get(attribute);
+    }
+
+    String string(AnnotationMirror annotation, String attribute) {
+        return (String) value(annotation, attribute);
+    }
+
+    boolean bool(AnnotationMirror annotation, String attribute) {
+        return (Boolean) value(annotation, attribute);
+    }
+
+    // the name of the constant of an enum attribute
+    String constant(AnnotationMirror annotation, String attribute) {
+        return ((VariableElement) value(annotation, attribute)).getSimpleName().toString();
+    }
+
+    // an attribute that is an array, or a single value
+    List<Object> values(AnnotationMirror annotation, String attribute) {
+        Object value = value(annotation, attribute);
+        List<Object> values = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                values.add(((AnnotationValue) item).getValue());
+            }
+        } else {
+            values.add(value);
+        }
+        return values;
+    }
+
+    List<String> strings(AnnotationMirror annotation, String attribute) {
+        List<String> strings = new ArrayList<>();
+        for (Object value : values(annotation, attribute)) {
+            strings.add((String) value);
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.initializer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Config>Initializer} next to each top-level
+ * {@code @Configuration} class of the module. It is an
+ * {@code ApplicationContextInitializer} that registers the same beans with
+ * {@code registerBean()} and suppliers that call the constructors and the
+ * {@code @Bean} methods directly, so the context starts without parsing the
+ * configuration, scanning the classpath or calling factory methods by
+ * reflection.
+ * <p>
+ * The components are the ones of the module, in the packages of its
+ * {@code @ComponentScan}. A configuration using something the generated code
+ * can't do the same way (imports, conditions, filters, {@code @Value}, ...)
+ * gets a warning instead of an initializer.
+ */
+@SupportedAnnotationTypes(InitializerProcessor.CONFIGURATION)
+public class InitializerProcessor extends AbstractProcessor {
+
+    static final String CONFIGURATION = "org.springframework.context.annotation.Configuration";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (annotations.isEmpty()) {
+            return false;
+        }
+        List<TypeElement> types = new ArrayList<>();
+        for (Element element : round.getRootElements()) {
+            addTypes(element, types);
+        }
+        var metadata = new Annotations(processingEnv);
+        for (TypeElement type : types) {
+            if (type.getNestingKind() != NestingKind.TOP_LEVEL || !metadata.isAnnotated(type, CONFIGURATION)) {
+                continue;
+            }
+            try {
+                var writer = new InitializerWriter(processingEnv, metadata, type, types);
+                String source = writer.write();
+                JavaFileObject file = processingEnv.getFiler().createSourceFile(writer.getInitializerName(), type);
+                try (Writer out = file.openWriter()) {
+                    out.write(source);
+                }
+            } catch (UnsupportedConfigurationException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "No initializer generated for " + type.getQualifiedName() + ": " + e.getMessage(),
+                        e.getElement() != null ? e.getElement() : type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Can't write the initializer of " + type.getQualifiedName() + ": " + e, type);
+            }
+        }
+        return false;
+    }
+
+    // the classes of the compilation, with their nested classes
+    private static void addTypes(Element element, List<TypeElement> types) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        types.add((TypeElement) element);
+        for (Element member : element.getEnclosedElements()) {
+            if (member.getKind().isClass() || member.getKind().isInterface() || member.getKind() == ElementKind.RECORD) {
+                addTypes(member, types);
+            }
+        }
+    }
+}
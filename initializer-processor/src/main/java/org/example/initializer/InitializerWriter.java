@@ -0,0 +1,763 @@
+package org.example.initializer;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the beans of one configuration class, the components it scans and the
+ * configurations among them, and writes the source of its initializer. The
+ * beans are registered in the order Spring registers them: the components as
+ * they are scanned, then the {@code @Bean} methods of each configuration, the
+ * scanned ones first.
+ * <p>
+ * It only knows the annotations the lessons use. Any other Spring annotation
+ * on a configuration, a bean or one of their members could change what Spring
+ * registers, so it stops the generation.
+ */
+final class InitializerWriter {
+
+    private static final String SPRING = "org.springframework.";
+    private static final String COMPONENT = "org.springframework.stereotype.Component";
+    private static final String BEAN = "org.springframework.context.annotation.Bean";
+    private static final String COMPONENT_SCAN = "org.springframework.context.annotation.ComponentScan";
+    private static final String ENABLE_ASPECTJ_AUTO_PROXY =
+            "org.springframework.context.annotation.EnableAspectJAutoProxy";
+    private static final String PRIMARY = "org.springframework.context.annotation.Primary";
+    private static final String SCOPE = "org.springframework.context.annotation.Scope";
+    private static final String ORDER = "org.springframework.core.annotation.Order";
+    private static final String AUTOWIRED = "org.springframework.beans.factory.annotation.Autowired";
+    private static final String VALUE = "org.springframework.beans.factory.annotation.Value";
+    private static final String QUALIFIER = "org.springframework.beans.factory.annotation.Qualifier";
+    private static final String OBJECT_PROVIDER = "org.springframework.beans.factory.ObjectProvider";
+    private static final List<String> COMMON_ANNOTATIONS = List.of(
+            "javax.annotation.PostConstruct", "javax.annotation.PreDestroy", "javax.annotation.Resource");
+
+    // the Spring annotations handled on each kind of element, besides the stereotypes
+    private static final Set<String> CONFIGURATION_ANNOTATIONS = Set.of(COMPONENT_SCAN, ENABLE_ASPECTJ_AUTO_PROXY);
+    // @Order is read from the class of the bean, Spring can't see it on a @Bean method called by a supplier
+    private static final Set<String> COMPONENT_ANNOTATIONS = Set.of(PRIMARY, SCOPE, ORDER);
+    private static final Set<String> BEAN_METHOD_ANNOTATIONS = Set.of(BEAN, PRIMARY, SCOPE);
+    private static final Set<String> MEMBER_ANNOTATIONS = Set.of(AUTOWIRED, VALUE, QUALIFIER);
+
+    private static final String IMPORTS = """
+            import org.springframework.aop.config.AopConfigUtils;
+            import org.springframework.beans.factory.config.BeanDefinition;
+            import org.springframework.beans.factory.support.AbstractBeanDefinition;
+            import org.springframework.context.ApplicationContextInitializer;
+            import org.springframework.context.annotation.AnnotationConfigUtils;
+            import org.springframework.context.support.GenericApplicationContext;
+
+            import java.util.Arrays;
+            """;
+
+    private static final String RESOLVE = """
+
+                // by type, then the primary bean, then the bean named like the parameter, like Spring
+                private static <T> T resolve(GenericApplicationContext context, Class<T> type, String name) {
+                    if (type.isInstance(context)) {
+                        return type.cast(context);
+                    }
+                    if (type.isInstance(context.getBeanFactory())) {
+                        return type.cast(context.getBeanFactory());
+                    }
+                    String[] candidates = context.getBeanNamesForType(type);
+                    if (candidates.length == 1) {
+                        return context.getBean(candidates[0], type);
+                    }
+                    for (String candidate : candidates) {
+                        if (context.containsBeanDefinition(candidate) && context.getBeanDefinition(candidate).isPrimary()) {
+                            return context.getBean(candidate, type);
+                        }
+                    }
+                    if (Arrays.asList(candidates).contains(name)) {
+                        return context.getBean(name, type);
+                    }
+                    // fails with the message Spring would give
+                    return context.getBean(type);
+                }
+            """;
+
+    private final Elements elements;
+    private final Types types;
+    private final Annotations annotations;
+    private final TypeElement root;
+    private final List<TypeElement> sources;
+    private final String packageName;
+
+    // the configurations whose @Bean methods are registered, in the order they are
+    private final List<Config> configs = new ArrayList<>();
+    private final Set<TypeElement> seenConfigs = new HashSet<>();
+    private final Map<String, Bean> components = new LinkedHashMap<>();
+    private final Set<String> variables = new HashSet<>();
+    private boolean autowiredProcessor;
+    private boolean commonProcessor;
+    private boolean resolveHelper;
+    private boolean autoProxy;
+
+    InitializerWriter(ProcessingEnvironment processingEnv, Annotations annotations, TypeElement root,
+                      List<TypeElement> sources) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.annotations = annotations;
+        this.root = root;
+        this.sources = sources;
+        this.packageName = elements.getPackageOf(root).getQualifiedName().toString();
+    }
+
+    String getInitializerName() {
+        return root.getQualifiedName() + "Initializer";
+    }
+
+    String write() throws UnsupportedConfigurationException {
+        if (packageName.isEmpty()) {
+            throw new UnsupportedConfigurationException("configurations in the default package aren't supported", root);
+        }
+        seenConfigs.add(root);
+        addConfiguration(root);
+        List<Bean> beans = new ArrayList<>(components.values());
+        for (Config config : configs) {
+            for (ExecutableElement method : config.beanMethods) {
+                beans.add(beanMethod(config, method));
+            }
+        }
+        for (Bean bean : beans) {
+            checkInjection(bean.type);
+        }
+        return source(beans);
+    }
+
+    // the components it scans first, then the configuration itself, like ConfigurationClassParser
+    private void addConfiguration(TypeElement type) throws UnsupportedConfigurationException {
+        var config = checkConfiguration(type);
+        AnnotationMirror scan = annotations.find(type, COMPONENT_SCAN);
+        if (scan != null) {
+            scan(type, scan);
+        }
+        configs.add(config);
+    }
+
+    private Config checkConfiguration(TypeElement type) throws UnsupportedConfigurationException {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !types.isSameType(type.getSuperclass(), elements.getTypeElement("java.lang.Object").asType())
+                || !type.getInterfaces().isEmpty()) {
+            throw new UnsupportedConfigurationException("only a concrete class without supertypes is supported", type);
+        }
+        checkAnnotations(type, CONFIGURATION_ANNOTATIONS);
+        AnnotationMirror enableAutoProxy = annotations.find(type, ENABLE_ASPECTJ_AUTO_PROXY);
+        if (enableAutoProxy != null) {
+            if (!annotations.explicit(enableAutoProxy).isEmpty()) {
+                throw new UnsupportedConfigurationException("@EnableAspectJAutoProxy attributes aren't supported", type);
+            }
+            autoProxy = true;
+        }
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement) {
+                if (annotations.isAnnotated(member, COMPONENT) || !beanMethods((TypeElement) member).isEmpty()) {
+                    throw new UnsupportedConfigurationException("nested configurations aren't supported", member);
+                }
+            } else if (!annotations.has(member, BEAN)) {
+                // the configuration itself isn't a bean, nothing would inject or call them
+                checkAnnotations(member, Set.of());
+                if (hasCommonAnnotation(member)) {
+                    throw new UnsupportedConfigurationException("the configuration itself isn't a bean", member);
+                }
+            }
+        }
+        ExecutableElement constructor = noArgConstructor(type);
+        if (constructor == null) {
+            throw new UnsupportedConfigurationException("it has no constructor without parameters", type);
+        }
+        AnnotationMirror configuration = annotations.find(type, InitializerProcessor.CONFIGURATION);
+        boolean proxyBeanMethods = configuration == null || annotations.bool(configuration, "proxyBeanMethods");
+        List<ExecutableElement> methods = beanMethods(type);
+        boolean proxied = proxyBeanMethods && methods.stream().anyMatch(m -> !isStatic(m));
+        if (proxied && type.getModifiers().contains(Modifier.FINAL)) {
+            throw new UnsupportedConfigurationException("a configuration with proxyBeanMethods can't be final", type);
+        }
+        if (!isAccessible(type) || !(isAccessible(constructor)
+                || proxied && constructor.getModifiers().contains(Modifier.PROTECTED))) {
+            throw new UnsupportedConfigurationException("it isn't accessible from " + packageName, type);
+        }
+        Set<String> names = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            names.add(method.getSimpleName().toString());
+        }
+        Set<String> beanNames = new HashSet<>();
+        for (ExecutableElement method : methods) {
+            checkBeanMethod(method, proxied);
+            if (!beanNames.add(method.getSimpleName().toString())) {
+                throw new UnsupportedConfigurationException("overloaded @Bean methods aren't supported", method);
+            }
+            if (proxied && !isStatic(method) && names.contains(createMethodName(method))) {
+                throw new UnsupportedConfigurationException("the configuration already has a method named "
+                        + createMethodName(method), method);
+            }
+        }
+        return new Config(type, variable(decapitalize(type.getSimpleName().toString())), proxied, methods);
+    }
+
+    private void checkBeanMethod(ExecutableElement method, boolean proxied) throws UnsupportedConfigurationException {
+        if (!isAccessible(method)) {
+            throw new UnsupportedConfigurationException("@Bean method isn't accessible from " + packageName, method);
+        }
+        if (proxied && !isStatic(method) && (method.getModifiers().contains(Modifier.FINAL)
+                || !isOverridable(method))) {
+            throw new UnsupportedConfigurationException("@Bean method can't be overridden", method);
+        }
+        if (!method.getTypeParameters().isEmpty() || method.isVarArgs() || !method.getThrownTypes().isEmpty()) {
+            throw new UnsupportedConfigurationException(
+                    "@Bean methods with type parameters, varargs or exceptions aren't supported", method);
+        }
+        if (method.getReturnType().getKind() != TypeKind.DECLARED || !isAccessible(asType(method.getReturnType()))) {
+            throw new UnsupportedConfigurationException("the type of the @Bean method isn't a class accessible from "
+                    + packageName, method);
+        }
+        if (!annotations.explicit(annotations.find(method, BEAN)).isEmpty()) {
+            throw new UnsupportedConfigurationException("@Bean attributes aren't supported", method);
+        }
+        checkAnnotations(method, BEAN_METHOD_ANNOTATIONS);
+    }
+
+    // the Spring annotations that aren't stereotypes must be in the allowed ones
+    private void checkAnnotations(Element element, Set<String> allowed) throws UnsupportedConfigurationException {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            String name = Annotations.nameOf(annotation);
+            if (name.startsWith(SPRING) && !allowed.contains(name) && !name.equals(COMPONENT)
+                    && !annotations.isAnnotated(annotation.getAnnotationType().asElement(), COMPONENT)) {
+                throw new UnsupportedConfigurationException("@" + name + " isn't supported", element);
+            }
+        }
+    }
+
+    private void scan(TypeElement config, AnnotationMirror scan) throws UnsupportedConfigurationException {
+        for (String attribute : annotations.explicit(scan)) {
+            if (!attribute.equals("value") && !attribute.equals("basePackages")) {
+                throw new UnsupportedConfigurationException("@ComponentScan(" + attribute + ") isn't supported",
+                        config);
+            }
+        }
+        List<String> packages = new ArrayList<>();
+        List<String> names = new ArrayList<>(annotations.strings(scan, "value"));
+        names.addAll(annotations.strings(scan, "basePackages"));
+        for (String name : names) {
+            for (String token : name.split("[,; \t\n]")) {
+                if (token.contains("${")) {
+                    throw new UnsupportedConfigurationException("placeholders in @ComponentScan aren't supported",
+                            config);
+                }
+                if (!token.isEmpty()) {
+                    packages.add(token);
+                }
+            }
+        }
+        if (packages.isEmpty()) {
+            packages.add(elements.getPackageOf(config).getQualifiedName().toString());
+        }
+        for (String scanned : packages) {
+            List<TypeElement> candidates = new ArrayList<>();
+            for (TypeElement type : sources) {
+                String typePackage = elements.getPackageOf(type).getQualifiedName().toString();
+                if ((typePackage.equals(scanned) || typePackage.startsWith(scanned + ".")) && isCandidate(type)) {
+                    candidates.add(type);
+                }
+            }
+            // in the order of their class files, which is the order Spring finds them in
+            candidates.sort(Comparator.comparing(this::classFilePath, InitializerWriter::comparePaths));
+            for (TypeElement candidate : candidates) {
+                if (annotations.isAnnotated(candidate, InitializerProcessor.CONFIGURATION)) {
+                    if (seenConfigs.add(candidate)) {
+                        addConfiguration(candidate);
+                    }
+                    continue;
+                }
+                Bean component = component(candidate);
+                Bean existing = components.get(component.name);
+                if (existing == null) {
+                    components.put(component.name, component);
+                } else if (existing.type != candidate) {
+                    throw new UnsupportedConfigurationException("two components are named " + component.name,
+                            candidate);
+                }
+            }
+        }
+    }
+
+    private boolean isCandidate(TypeElement type) {
+        return (type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.RECORD)
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC))
+                && annotations.isAnnotated(type, COMPONENT);
+    }
+
+    private List<String> classFilePath(TypeElement type) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        List<String> path = new ArrayList<>(Arrays.asList(packageName.split("\\.")));
+        path.add(binaryName.substring(packageName.length() + 1) + ".class");
+        return path;
+    }
+
+    private static int comparePaths(List<String> a, List<String> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int compared = a.get(i).compareTo(b.get(i));
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    private Bean component(TypeElement type) throws UnsupportedConfigurationException {
+        if (!isAccessible(type)) {
+            throw new UnsupportedConfigurationException("the component isn't accessible from " + packageName, type);
+        }
+        checkAnnotations(type, COMPONENT_ANNOTATIONS);
+        for (Element member : type.getEnclosedElements()) {
+            if (!(member instanceof TypeElement)) {
+                checkAnnotations(member, MEMBER_ANNOTATIONS);
+            }
+        }
+        var bean = new Bean(componentName(type), type);
+        customize(bean, type);
+        if (!setConstructorSupplier(bean, type)) {
+            // Spring picks the constructor and resolves its arguments
+            autowiredProcessor = true;
+        }
+        return bean;
+    }
+
+    // false when Spring has to call the constructor by reflection
+    private boolean setConstructorSupplier(Bean bean, TypeElement type) {
+        ExecutableElement constructor = constructor(type);
+        if (constructor == null || !isAccessible(constructor) || !constructor.getThrownTypes().isEmpty()
+                || constructor.isVarArgs()) {
+            return false;
+        }
+        List<String> arguments = new ArrayList<>();
+        for (VariableElement parameter : constructor.getParameters()) {
+            try {
+                arguments.add(argument(parameter));
+            } catch (UnsupportedConfigurationException e) {
+                return false;
+            }
+        }
+        String diamond = type.getTypeParameters().isEmpty() ? "" : "<>";
+        bean.supplier = "() -> new " + type.getQualifiedName() + diamond + "(" + String.join(", ", arguments) + ")";
+        return true;
+    }
+
+    // the @Autowired one, the only one, or the one without parameters, like Spring
+    private ExecutableElement constructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        ExecutableElement autowired = null;
+        for (ExecutableElement constructor : constructors) {
+            AnnotationMirror annotation = annotations.find(constructor, AUTOWIRED);
+            if (annotation != null) {
+                if (autowired != null || !annotations.bool(annotation, "required")) {
+                    return null;
+                }
+                autowired = constructor;
+            }
+        }
+        if (autowired != null) {
+            return autowired;
+        }
+        if (constructors.size() == 1) {
+            return constructors.get(0);
+        }
+        return noArgConstructor(type);
+    }
+
+    private ExecutableElement noArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    private Bean beanMethod(Config config, ExecutableElement method) throws UnsupportedConfigurationException {
+        var bean = new Bean(method.getSimpleName().toString(), asType(method.getReturnType()));
+        customize(bean, method);
+        // the default of @Bean(destroyMethod): a public close() or shutdown() is called
+        bean.customizations.add("bd.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD)");
+        String target;
+        String methodName = method.getSimpleName().toString();
+        if (isStatic(method)) {
+            target = ((TypeElement) method.getEnclosingElement()).getQualifiedName().toString();
+        } else {
+            target = config.variable;
+            if (config.proxied) {
+                methodName = createMethodName(method);
+            }
+        }
+        List<String> arguments = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            arguments.add(argument(parameter));
+        }
+        bean.supplier = arguments.isEmpty() ? target + "::" + methodName
+                : "() -> " + target + "." + methodName + "(" + String.join(", ", arguments) + ")";
+        return bean;
+    }
+
+    // the method of the subclass that calls the @Bean method of the configuration
+    private static String createMethodName(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        return "create" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void customize(Bean bean, Element element) throws UnsupportedConfigurationException {
+        if (annotations.has(element, PRIMARY)) {
+            bean.customizations.add("bd.setPrimary(true)");
+        }
+        AnnotationMirror scope = annotations.find(element, SCOPE);
+        if (scope != null) {
+            String proxyMode = annotations.constant(scope, "proxyMode");
+            if (!proxyMode.equals("DEFAULT") && !proxyMode.equals("NO")) {
+                throw new UnsupportedConfigurationException("scoped proxies aren't supported", element);
+            }
+            String name = annotations.string(scope, "value");
+            if (name.isEmpty()) {
+                name = annotations.string(scope, "scopeName");
+            }
+            if (!name.isEmpty()) {
+                bean.customizations.add("bd.setScope(" + literal(name) + ")");
+            }
+        }
+    }
+
+    // how the generated code gets the bean to pass to a parameter
+    private String argument(VariableElement parameter) throws UnsupportedConfigurationException {
+        checkAnnotations(parameter, Set.of(QUALIFIER));
+        TypeMirror type = parameter.asType();
+        if (type.getKind().isPrimitive()) {
+            type = types.boxedClass(types.getPrimitiveType(type.getKind())).asType();
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new UnsupportedConfigurationException("parameters of type " + type + " aren't supported", parameter);
+        }
+        TypeElement element = asType(type);
+        List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+        if (!typeArguments.isEmpty()) {
+            TypeMirror provided = typeArguments.get(0);
+            if (element.getQualifiedName().contentEquals(OBJECT_PROVIDER) && provided.getKind() == TypeKind.DECLARED
+                    && ((DeclaredType) provided).getTypeArguments().isEmpty() && isAccessible(asType(provided))) {
+                return "context.getBeanProvider(" + classLiteral(asType(provided)) + ")";
+            }
+            throw new UnsupportedConfigurationException("parameters of type " + type + " aren't supported", parameter);
+        }
+        if (!isAccessible(element)) {
+            throw new UnsupportedConfigurationException(type + " isn't accessible from " + packageName, parameter);
+        }
+        AnnotationMirror qualifier = annotations.find(parameter, QUALIFIER);
+        if (qualifier != null) {
+            return "context.getBean(" + literal(annotations.string(qualifier, "value")) + ", "
+                    + classLiteral(element) + ")";
+        }
+        resolveHelper = true;
+        return "resolve(context, " + classLiteral(element) + ", " + literal(parameter.getSimpleName().toString())
+                + ")";
+    }
+
+    // the post-processors the beans need, AnnotationConfigApplicationContext registers them all
+    private void checkInjection(TypeElement type) {
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() != ElementKind.CONSTRUCTOR && hasInjection(member)) {
+                    autowiredProcessor = true;
+                }
+                if (hasCommonAnnotation(member)) {
+                    commonProcessor = true;
+                }
+            }
+        }
+    }
+
+    private boolean hasInjection(Element member) {
+        return annotations.has(member, AUTOWIRED) || annotations.has(member, VALUE);
+    }
+
+    private boolean hasCommonAnnotation(Element member) {
+        for (String annotation : COMMON_ANNOTATIONS) {
+            if (annotations.has(member, annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? asType(superclass) : null;
+    }
+
+    private List<ExecutableElement> beanMethods(TypeElement type) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (annotations.has(method, BEAN)) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private String componentName(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            boolean stereotype = Annotations.nameOf(annotation).equals(COMPONENT)
+                    || annotations.isAnnotated(annotation.getAnnotationType().asElement(), COMPONENT);
+            if (stereotype) {
+                for (var entry : annotation.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")
+                            && entry.getValue().getValue() instanceof String
+                            && !((String) entry.getValue().getValue()).isEmpty()) {
+                        return (String) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        // like ClassUtils.getShortName and Introspector.decapitalize
+        String binaryName = elements.getBinaryName(type).toString();
+        return decapitalize(binaryName.substring(binaryName.lastIndexOf('.') + 1).replace('$', '.'));
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private String variable(String name) {
+        String unique = name;
+        for (int i = 2; !variables.add(unique) || unique.equals("context"); i++) {
+            unique = name + i;
+        }
+        return unique;
+    }
+
+    private boolean isAccessible(Element element) {
+        for (Element current = element; current instanceof TypeElement || current instanceof ExecutableElement;
+             current = current.getEnclosingElement()) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC)
+                    && !elements.getPackageOf(current).getQualifiedName().contentEquals(packageName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a subclass in the package of the initializer can override it
+    private boolean isOverridable(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        return modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED)
+                || elements.getPackageOf(method).getQualifiedName().contentEquals(packageName);
+    }
+
+    private static boolean isStatic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private TypeElement asType(TypeMirror type) {
+        return (TypeElement) types.asElement(type);
+    }
+
+    private static String classLiteral(TypeElement type) {
+        return type.getQualifiedName() + ".class";
+    }
+
+    private static String literal(String value) {
+        var literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private String source(List<Bean> beans) {
+        var body = new StringBuilder();
+        if (autowiredProcessor) {
+            body.append(infrastructure("AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME",
+                    "org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor"));
+        }
+        if (commonProcessor) {
+            body.append(infrastructure("COMMON_ANNOTATION_PROCESSOR_BEAN_NAME",
+                    "org.springframework.context.annotation.CommonAnnotationBeanPostProcessor"));
+        }
+        if (autoProxy) {
+            body.append("        AopConfigUtils.registerAspectJAnnotationAutoProxyCreatorIfNecessary(context);\n");
+        }
+        if (body.length() > 0) {
+            body.append('\n');
+        }
+        for (Config config : configs) {
+            if (config.beanMethods.stream().anyMatch(m -> !isStatic(m))) {
+                body.append("        var ").append(config.variable).append(" = new ")
+                        .append(config.proxied ? proxyName(config) + "(context)" : config.type.getQualifiedName() + "()")
+                        .append(";\n");
+            }
+        }
+        for (Bean bean : beans) {
+            body.append("        context.registerBean(").append(literal(bean.name)).append(", ")
+                    .append(classLiteral(bean.type));
+            if (bean.supplier != null) {
+                body.append(",\n                ").append(bean.supplier);
+            }
+            if (!bean.customizations.isEmpty()) {
+                body.append(", bd -> {\n");
+                for (String customization : bean.customizations) {
+                    body.append("            ").append(customization).append(";\n");
+                }
+                body.append("        }");
+            }
+            body.append(");\n");
+        }
+        var helpers = new StringBuilder();
+        for (Config config : configs) {
+            if (config.proxied) {
+                helpers.append(proxySource(config));
+            }
+        }
+        if (resolveHelper) {
+            helpers.append(RESOLVE);
+        }
+        return """
+                package %s;
+
+                %s
+                /**
+                 * Registers the beans of {@link %s} with suppliers, so the context starts
+                 * without parsing the configuration or scanning the classpath. Generated by
+                 * {@code InitializerProcessor} when the configuration is compiled, don't edit it.
+                 */
+                public class %sInitializer implements ApplicationContextInitializer<GenericApplicationContext> {
+
+                    @Override
+                    public void initialize(GenericApplicationContext context) {
+                %s    }
+                %s}
+                """.formatted(packageName, IMPORTS, root.getSimpleName(), root.getSimpleName(), body, helpers);
+    }
+
+    private static String infrastructure(String name, String type) {
+        return """
+                        context.registerBean(AnnotationConfigUtils.%s, %s.class, %s::new,
+                                bd -> bd.setRole(BeanDefinition.ROLE_INFRASTRUCTURE));
+                """.formatted(name, type, type);
+    }
+
+    private String proxyName(Config config) {
+        return config.type.getSimpleName() + "Beans";
+    }
+
+    // what the CGLIB subclass of a @Configuration does: a @Bean method called by another one returns the bean
+    private String proxySource(Config config) {
+        var methods = new StringBuilder();
+        for (ExecutableElement method : config.beanMethods) {
+            if (isStatic(method)) {
+                continue;
+            }
+            String returnType = method.getReturnType().toString();
+            List<String> parameters = new ArrayList<>();
+            List<String> arguments = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                parameters.add(parameter.asType() + " " + parameter.getSimpleName());
+                arguments.add(parameter.getSimpleName().toString());
+            }
+            String visibility = method.getModifiers().contains(Modifier.PUBLIC) ? "public "
+                    : method.getModifiers().contains(Modifier.PROTECTED) ? "protected " : "";
+            String getBean = arguments.isEmpty()
+                    ? "context.getBean(" + literal(method.getSimpleName().toString()) + ", "
+                            + classLiteral(asType(method.getReturnType())) + ")"
+                    : "(" + returnType + ") context.getBean(" + literal(method.getSimpleName().toString()) + ", "
+                            + String.join(", ", arguments) + ")";
+            methods.append("""
+
+                            @Override
+                            %s%s %s(%s) {
+                                return %s;
+                            }
+
+                            %s %s(%s) {
+                                return super.%s(%s);
+                            }
+                    """.formatted(visibility, returnType, method.getSimpleName(), String.join(", ", parameters),
+                    getBean, returnType, createMethodName(method), String.join(", ", parameters),
+                    method.getSimpleName(), String.join(", ", arguments)));
+        }
+        return """
+
+                    // the @Bean methods called by other @Bean methods return the beans, like in the CGLIB subclass Spring creates
+                    @SuppressWarnings("unchecked")
+                    private static final class %s extends %s {
+
+                        private final GenericApplicationContext context;
+
+                        %s(GenericApplicationContext context) {
+                            this.context = context;
+                        }
+                %s    }
+                """.formatted(proxyName(config), config.type.getQualifiedName(), proxyName(config), methods);
+    }
+
+    private static final class Config {
+
+        final TypeElement type;
+        final String variable;
+        // proxyBeanMethods, with instance @Bean methods
+        final boolean proxied;
+        final List<ExecutableElement> beanMethods;
+
+        Config(TypeElement type, String variable, boolean proxied, List<ExecutableElement> beanMethods) {
+            this.type = type;
+            this.variable = variable;
+            this.proxied = proxied;
+            this.beanMethods = beanMethods;
+        }
+    }
+
+    private static final class Bean {
+
+        final String name;
+        final TypeElement type;
+        final List<String> customizations = new ArrayList<>();
+        // the method reference or the lambda; null when Spring creates it by reflection
+        String supplier;
+
+        Bean(String name, TypeElement type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
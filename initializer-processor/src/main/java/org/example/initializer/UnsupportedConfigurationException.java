@@ -0,0 +1,23 @@
+package org.example.initializer;
+
+import javax.lang.model.element.Element;
+
+/**
+ * A configuration the generated initializer couldn't register the same way
+ * Spring does, the element is where the warning points to.
+ */
+class UnsupportedConfigurationException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Element element;
+
+    UnsupportedConfigurationException(String message, Element element) {
+        super(message);
+        this.element = element;
+    }
+
+    Element getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.injection;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The beans Spring injects in a constructor or factory method parameter, so
+ * a bean factory can tell which beans a bean needs before creating it. An
+ * array, a collection or a map gets all the beans of its element type, an
+ * {@code Optional} at most one. An {@code ObjectFactory}, an
+ * {@code ObjectProvider}, a {@code javax.inject.Provider} or a {@code @Lazy}
+ * parameter is deferred: it gets a handle that looks the beans up when it is
+ * used, which may still be in the constructor.
+ */
+public final class InjectedType {
+
+    private final Class<?> beanType;
+    private final boolean multiple;
+    private final boolean deferred;
+
+    private InjectedType(Class<?> beanType, boolean multiple, boolean deferred) {
+        this.beanType = beanType;
+        this.multiple = multiple;
+        this.deferred = deferred;
+    }
+
+    public static InjectedType of(MethodParameter parameter) {
+        boolean deferred = parameter.hasParameterAnnotation(Lazy.class);
+        ResolvableType type = ResolvableType.forMethodParameter(parameter);
+        Class<?> rawType = type.resolve();
+        if (rawType != null && (ObjectFactory.class.isAssignableFrom(rawType)
+                || rawType.getName().equals("javax.inject.Provider"))) {
+            deferred = true;
+            type = rawType.getName().equals("javax.inject.Provider")
+                    ? type.getGeneric(0) : type.as(ObjectFactory.class).getGeneric(0);
+            rawType = type.resolve();
+        }
+
+        boolean multiple = false;
+        if (rawType == Optional.class) {
+            type = type.getGeneric(0);
+        } else if (rawType != null && rawType.isArray()) {
+            type = type.getComponentType();
+            multiple = true;
+        } else if (rawType != null && Collection.class.isAssignableFrom(rawType)) {
+            type = type.asCollection().getGeneric(0);
+            multiple = true;
+        } else if (rawType != null && Map.class.isAssignableFrom(rawType)) {
+            type = type.asMap().getGeneric(1);
+            multiple = true;
+        }
+        return new InjectedType(type.resolve(), multiple, deferred);
+    }
+
+    // null when the generics don't say, Spring may still find the beans when it resolves the parameter
+    public Class<?> getBeanType() {
+        return beanType;
+    }
+
+    // all the beans of the type, not one of them
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+}